@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import org.glassfish.embeddable.CommandResult;
+import org.glassfish.embeddable.CommandRunner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Splitting of admin command lines, their dispatch to a CommandRunner and the encoding of the results,
+ * as done by the admin goal without forking. The CommandRunner returns a constant result, so that the
+ * benchmark measures the plugin and not the admin commands of GlassFish.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdminDispatchBenchmark {
+
+    private static final String[] VERSION = {"version"};
+    private static final String[] BATCH = {
+        "create-jdbc-connection-pool --datasourceclassname org.h2.jdbcx.JdbcDataSource"
+                + " --restype javax.sql.DataSource --property url=jdbc\\:h2\\:mem\\:test benchmark-pool",
+        "create-jdbc-resource --connectionpoolid benchmark-pool jdbc/benchmark",
+        "set configs.config.server-config.network-config.network-listeners.network-listener.http-listener.port=8080",
+        "set-log-levels  org.glassfish.maven=FINE",
+        "version"};
+
+    private static final CommandResult RESULT = new CommandResult() {
+        @Override
+        public ExitStatus getExitStatus() {
+            return ExitStatus.SUCCESS;
+        }
+
+        @Override
+        public String getOutput() {
+            return "Command executed successfully.";
+        }
+
+        @Override
+        public Throwable getFailureCause() {
+            return null;
+        }
+    };
+
+    private static final CommandRunner COMMAND_RUNNER = new CommandRunner() {
+        @Override
+        public CommandResult run(String command, String... args) {
+            return RESULT;
+        }
+
+        @Override
+        public void setTerse(boolean terse) {
+        }
+    };
+
+    // the INFO record of every command would otherwise dominate the measurement
+    private final Logger logger = Logger.getLogger("embedded-glassfish-maven-plugin");
+    private java.util.logging.Level level;
+
+    @Setup(Level.Trial)
+    public void silenceLogger() throws ClassNotFoundException {
+        // PluginUtil sets the level of the logger when it is initialized
+        Class.forName(PluginUtil.class.getName());
+        level = logger.getLevel();
+        logger.setLevel(java.util.logging.Level.WARNING);
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreLogger() {
+        logger.setLevel(level);
+    }
+
+    @Benchmark
+    public String[] single() {
+        return PluginUtil.runCommands(COMMAND_RUNNER, VERSION, false);
+    }
+
+    @Benchmark
+    public String[] batch() {
+        return PluginUtil.runCommands(COMMAND_RUNNER, BATCH, true);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Setup shared by the benchmarks. The benchmarks live in the package of the plugin, so that they
+ * drive the package-private classes and mojo fields the same way Maven and the goals do.
+ */
+final class BenchmarkSupport {
+
+    static final String SERVER_ID = "benchmark";
+
+    private BenchmarkSupport() {
+    }
+
+    static File createWorkDirectory() throws IOException {
+        File directory = Files.createTempDirectory("glassfish-benchmark-").toFile();
+        directory.deleteOnExit();
+        return directory;
+    }
+
+    static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * Configures the mojo like Maven does with the defaults of its parameters and a free HTTP port.
+     */
+    static <T extends AbstractServerMojo> T configure(T mojo, File workDirectory) throws IOException {
+        mojo.serverID = SERVER_ID;
+        mojo.port = -1;
+        mojo.ports = Map.of("http-listener", String.valueOf(freePort()));
+        mojo.configFileReadOnly = true;
+        mojo.autoDelete = true;
+        mojo.readyTimeout = 300;
+        mojo.deployThreads = 1;
+        mojo.cacheDirectory = new File(workDirectory, "cache");
+        mojo.bootstrapProperties = new ArrayList<>();
+        mojo.glassfishProperties = List.of(
+                "embedded-glassfish-config.server.jms-service.jms-host.default_JMS_host.port=" + freePort());
+        mojo.project = new MavenProject();
+        mojo.project.getBuild().setDirectory(new File(workDirectory, "target").getAbsolutePath());
+        return mojo;
+    }
+
+    /**
+     * Launches {@link GlassFishForkedRunner} with the classpath of this JVM, which contains the plugin
+     * and GlassFish, and waits until it is ready. Its log is written to the work directory.
+     */
+    static ForkedServer fork(Properties bootstrapProps, Properties glassfishProps, File workDirectory)
+            throws Exception {
+        ServerSocket controlSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        String controlToken = UUID.randomUUID().toString();
+        Properties config = new Properties();
+        config.setProperty(GlassFishForkedRunner.SECTION_SERVER_ID, SERVER_ID);
+        config.setProperty(GlassFishForkedRunner.SECTION_CONTROL_PORT, String.valueOf(controlSocket.getLocalPort()));
+        config.setProperty(GlassFishForkedRunner.SECTION_CONTROL_TOKEN, controlToken);
+        for (String key : bootstrapProps.stringPropertyNames()) {
+            config.setProperty(GlassFishForkedRunner.SECTION_BOOTSTRAP + key, bootstrapProps.getProperty(key));
+        }
+        for (String key : glassfishProps.stringPropertyNames()) {
+            config.setProperty(GlassFishForkedRunner.SECTION_GLASSFISH + key, glassfishProps.getProperty(key));
+        }
+        File configFile = new File(workDirectory, "runner.properties");
+        try (FileOutputStream fos = new FileOutputStream(configFile)) {
+            config.store(fos, "GlassFish forked runner benchmark");
+        }
+
+        String javaExecutable = ProcessHandle.current().info().command()
+                .orElse(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        ProcessBuilder pb = new ProcessBuilder(javaExecutable,
+                "--add-opens=java.base/java.lang=ALL-UNNAMED",
+                "--add-opens=java.base/java.io=ALL-UNNAMED",
+                "--add-opens=java.base/java.util=ALL-UNNAMED",
+                "--add-opens=java.naming/javax.naming.spi=ALL-UNNAMED",
+                "-cp", System.getProperty("java.class.path"),
+                GlassFishForkedRunner.class.getName(), configFile.getAbsolutePath());
+        pb.redirectErrorStream(true);
+        try (ServerSocket socket = controlSocket) {
+            Process process = pb.start();
+            ForkedLog log = ForkedLog.start(process, new File(workDirectory, SERVER_ID + ".log"), false,
+                    Level.WARNING);
+            return ForkedServer.connect(process, socket, controlToken, log);
+        }
+    }
+
+    /**
+     * Creates a web application consisting of a single page.
+     */
+    static File createWar(File workDirectory) throws IOException {
+        File war = new File(workDirectory, "benchmark.war");
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(war))) {
+            zip.putNextEntry(new ZipEntry("index.html"));
+            zip.write("<html><body>benchmark</body></html>".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        return war;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from launching the forked GlassFish JVM until it sent {@code READY}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ForkToReadyBenchmark {
+
+    private File workDirectory;
+    private Properties bootstrapProps;
+    private Properties glassfishProps;
+    private ForkedServer forkedServer;
+
+    @Setup(Level.Trial)
+    public void configure() throws Exception {
+        workDirectory = BenchmarkSupport.createWorkDirectory();
+        StartMojo mojo = BenchmarkSupport.configure(new StartMojo(), workDirectory);
+        bootstrapProps = mojo.getBootStrapProperties();
+        glassfishProps = mojo.getGlassFishProperties();
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws Exception {
+        if (forkedServer != null) {
+            forkedServer.stop();
+            forkedServer = null;
+        }
+    }
+
+    @Benchmark
+    public ForkedServer forkToReady() throws Exception {
+        forkedServer = BenchmarkSupport.fork(bootstrapProps, glassfishProps, workDirectory);
+        return forkedServer;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trip of a command through the control connection of {@link GlassFishForkedRunner},
+ * from sending the request line to the completion of its response frame.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ForkedRunnerBenchmark {
+
+    private ForkedServer forkedServer;
+
+    @Setup(Level.Trial)
+    public void fork() throws Exception {
+        File workDirectory = BenchmarkSupport.createWorkDirectory();
+        StartMojo mojo = BenchmarkSupport.configure(new StartMojo(), workDirectory);
+        forkedServer = BenchmarkSupport.fork(mojo.getBootStrapProperties(), mojo.getGlassFishProperties(),
+                workDirectory);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws Exception {
+        forkedServer.stop();
+    }
+
+    /**
+     * A command answered by the runner itself, i.e. the protocol overhead.
+     */
+    @Benchmark
+    public ForkedServer.Response timingsRoundTrip() throws Exception {
+        return forkedServer.send(GlassFishForkedRunner.CMD_TIMINGS);
+    }
+
+    /**
+     * A cheap admin command, dispatched to the CommandRunner of GlassFish.
+     */
+    @Benchmark
+    public ForkedServer.Response adminRoundTrip() throws Exception {
+        return forkedServer.send(GlassFishForkedRunner.CMD_ADMIN + " version");
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The reflective calls of the mojos into {@link PluginUtil} loaded by the GlassFish class loader,
+ * against a server that is already running.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReflectiveInvocationBenchmark {
+
+    private static final String[] DEPLOYMENT_PARAMS = {"--name=benchmark", "--force=true"};
+
+    private final ClassLoader classLoader = PluginUtil.class.getClassLoader();
+    private DeployMojo mojo;
+    private Properties bootstrapProps;
+    private Properties glassfishProps;
+    private File war;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        File workDirectory = BenchmarkSupport.createWorkDirectory();
+        mojo = BenchmarkSupport.configure(new DeployMojo(), workDirectory);
+        bootstrapProps = mojo.getBootStrapProperties();
+        glassfishProps = mojo.getGlassFishProperties();
+        war = BenchmarkSupport.createWar(workDirectory);
+        mojo.startGlassFish(BenchmarkSupport.SERVER_ID, classLoader, bootstrapProps, glassfishProps);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws Exception {
+        PluginUtil.stopGlassFish(BenchmarkSupport.SERVER_ID);
+    }
+
+    /**
+     * Nothing to start, i.e. the cost of the reflective lookup and invocation.
+     */
+    @Benchmark
+    public void startGlassFish() throws Exception {
+        mojo.startGlassFish(BenchmarkSupport.SERVER_ID, classLoader, bootstrapProps, glassfishProps);
+    }
+
+    /**
+     * Forced redeployment of a single page web application.
+     */
+    @Benchmark
+    public void doDeploy() throws Exception {
+        mojo.doDeploy(BenchmarkSupport.SERVER_ID, classLoader, bootstrapProps, glassfishProps, war,
+                DEPLOYMENT_PARAMS);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+    Copyright (c) 2026 Contributors to Eclipse Foundation. All rights reserved.
+
+    This program and the accompanying materials are made available under the
+    terms of the Eclipse Public License v. 2.0, which is available at
+    http://www.eclipse.org/legal/epl-2.0.
+
+    This Source Code may also be made available under the following Secondary
+    Licenses when the conditions for such availability set forth in the
+    Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+    version 2 with the GNU Classpath Exception, which is available at
+    https://www.gnu.org/software/classpath/license.html.
+
+    SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+*/
+
+// Compares the startup time and the memory of the server of this IT with performance-baseline.properties.
+// The measured values are written to target/performance.properties, to update the baseline from.
+
+import groovy.json.JsonSlurper
+
+def itName = basedir.name
+def timingsFile = new File(basedir, 'target/glassfish-timings.json')
+assert timingsFile.exists() : 'Timing report is missing'
+def timings = new JsonSlurper().parse(timingsFile)
+
+def end = { phase -> phase.startMillis + phase.millis }
+def measured = [:]
+def ready = timings.phases.find { it.name == 'wait for READY' } ?: timings.phases.find { it.name == 'container start' }
+if (ready) {
+    measured.timeToReadyMillis = end(ready)
+}
+def deployments = timings.phases.findAll { it.category == 'deploy' }
+if (deployments) {
+    measured.timeToFirstDeployMillis = deployments.collect(end).min()
+}
+timings.memory?.each { name, bytes -> measured[name] = bytes }
+
+def result = new Properties()
+measured.each { name, value -> result.setProperty("${itName}.${name}", String.valueOf(value)) }
+new File(basedir, 'target/performance.properties').withOutputStream { result.store(it, "Performance of ${itName}") }
+
+if (Boolean.getBoolean('glassfish.performance.skip')) {
+    println "Performance of ${itName}: ${measured}, not compared with the baseline"
+    return
+}
+
+def baseline = new Properties()
+new File(glassfishBuildScriptsDirectory, 'performance-baseline.properties').withInputStream { baseline.load(it) }
+
+def missing = []
+def regressions = []
+measured.each { name, value ->
+    def expected = baseline.getProperty("${itName}.${name}")
+    def tolerance = baseline.getProperty("tolerance.${name}")
+    if (expected == null || tolerance == null) {
+        println "Performance of ${itName}: ${name} = ${value}, no baseline"
+        missing << name
+        return
+    }
+    def budget = (long) (Long.parseLong(expected) * (1 + Double.parseDouble(tolerance)))
+    println "Performance of ${itName}: ${name} = ${value}, baseline ${expected}, budget ${budget}"
+    if (value > budget) {
+        regressions << "${name} = ${value} exceeds the budget of ${budget} (baseline ${expected} + ${tolerance})"
+    }
+}
+
+assert missing.isEmpty() : "Performance of ${itName} has no baseline for ${missing.join(', ')}: copy the values" +
+        " from target/performance.properties to performance-baseline.properties, or run with" +
+        " -Dglassfish.performance.skip=true"
+assert regressions.isEmpty() : "Performance of ${itName} regressed: " + regressions.join(', ')
@@ -14,6 +14,8 @@
     SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
 */
 
+evaluate(new File(glassfishBuildScriptsDirectory, 'verify-performance.groovy'))
+
 String [] buildLog = new File(basedir, 'build.log')
 
 startedLines = buildLog.grep(~/^INFO: Ran command.*SUCCESS.*/)
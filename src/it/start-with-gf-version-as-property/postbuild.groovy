@@ -15,6 +15,7 @@
 */
 
 evaluate(new File(glassfishBuildScriptsDirectory, 'verify-http-check.groovy'))
+evaluate(new File(glassfishBuildScriptsDirectory, 'verify-performance.groovy'))
 
 String [] buildLog = new File(basedir, 'build.log')
 
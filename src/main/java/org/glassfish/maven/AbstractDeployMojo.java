@@ -16,11 +16,13 @@
  */
 package org.glassfish.maven;
 
+import org.apache.maven.artifact.Artifact;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Parameter;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
@@ -142,6 +144,32 @@ public abstract class AbstractDeployMojo extends AbstractServerMojo {
     @Parameter(property = "undeploymentParams")
     protected String[] undeploymentParams;
 
+    /**
+     * When true and no {@code app} is configured, the project is deployed as an exploded directory assembled
+     * from {@code target/classes}, the runtime dependencies and the webapp sources, instead of the packaged WAR.
+     * <p/>
+     * The directory consists of links to the build output, so neither packaging nor unpacking a WAR is needed,
+     * and recompiled classes are picked up by the next redeployment.
+     * Can also be set via the Maven property {@code glassfish.exploded}.
+     */
+    @Parameter(property = "glassfish.exploded", defaultValue = "false")
+    protected boolean exploded;
+
+    /**
+     * Directory with the webapp sources, such as {@code WEB-INF/web.xml}, used by the {@code exploded} deployment.
+     */
+    @Parameter(property = "glassfish.warSourceDirectory", defaultValue = "${basedir}/src/main/webapp")
+    protected File warSourceDirectory;
+
+    /**
+     * Comma-separated names of the applications which have to be deployed before this one.
+     * <p/>
+     * Only used by the run goal, when it deploys the applications of several deploy goals
+     * concurrently, see {@code deployThreads}.
+     */
+    @Parameter
+    protected String dependsOn;
+
     public abstract void execute() throws MojoExecutionException, MojoFailureException;
 
     protected String[] getDeploymentParameters() {
@@ -209,11 +237,40 @@ public abstract class AbstractDeployMojo extends AbstractServerMojo {
     protected String getApp(String app) {
         if (app != null) {
             return new File(app).isAbsolute() ? app : baseDirectory + File.separator + app;
+        } else if (exploded) {
+            return assembleExplodedWar().getAbsolutePath();
         } else {
             return buildDirectory + File.separator + fileName + ".war"; // TODO :: use pom.xml's packaging type.
         }
     }
 
+    /**
+     * Creates or updates the exploded layout of the project under {@code ${project.build.directory}}.
+     */
+    private File assembleExplodedWar() {
+        List<File> libraries = new ArrayList<>();
+        for (Artifact artifact : project.getArtifacts()) {
+            String scope = artifact.getScope();
+            if ((Artifact.SCOPE_COMPILE.equals(scope) || Artifact.SCOPE_RUNTIME.equals(scope))
+                    && "jar".equals(artifact.getType()) && artifact.getFile() != null) {
+                libraries.add(artifact.getFile());
+            }
+        }
+        try {
+            long startTime = System.currentTimeMillis();
+            File directory = new ExplodedWar(new File(buildDirectory, fileName + "-exploded"))
+                    .addWebappDirectory(warSourceDirectory)
+                    .setClassesDirectory(new File(project.getBuild().getOutputDirectory()))
+                    .addLibraries(libraries)
+                    .assemble();
+            System.out.println("Assembled exploded application " + directory + " in "
+                    + (System.currentTimeMillis() - startTime) + " ms");
+            return directory;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not assemble exploded application: " + e.getMessage(), e);
+        }
+    }
+
     protected void doDeploy(String serverId, ClassLoader cl, Properties bootstrapProps,
             Properties glassfishProperties,
             File archive, String[] deploymentParams) throws Exception {
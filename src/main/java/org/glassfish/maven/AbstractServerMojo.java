@@ -24,6 +24,8 @@ import org.apache.maven.artifact.metadata.ResolutionGroup;
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.artifact.resolver.ArtifactResolver;
 import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -31,26 +33,41 @@ import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.MavenProjectBuilder;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.StringReader;
 import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
 import java.net.URI;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
-import java.util.concurrent.CountDownLatch;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
 
 /**
  * @author bhavanishankar@dev.java.net
@@ -65,6 +82,13 @@ public abstract class AbstractServerMojo extends AbstractMojo {
     public static final String CONFIG_FILE_URI_PROP_NAME = "org.glassfish.embeddable.configFileURI";
     private static final String NETWORK_LISTENER_KEY = "embedded-glassfish-config." +
             "server.network-config.network-listeners.network-listener.%s";
+    private static final String PORT_PROPERTY_PREFIX = "glassfish.port.";
+    private static final String DIAGNOSTICS_DIRECTORY = "glassfish-diagnostics";
+    private static final long DIAGNOSTICS_WAIT_SECONDS = 60;
+    private static final int MAX_RESTARTS = 3;
+    // Commands which change the state of the server, replayed after a restart
+    private static final Set<String> REPLAYED_COMMANDS = Set.of(GlassFishForkedRunner.CMD_DEPLOY,
+            GlassFishForkedRunner.CMD_UNDEPLOY, GlassFishForkedRunner.CMD_ADMIN, GlassFishForkedRunner.CMD_ADMIN_BATCH);
 
     public static String thisArtifactId = "org.glassfish.embedded:embedded-glassfish-maven-plugin";
 
@@ -78,7 +102,9 @@ public abstract class AbstractServerMojo extends AbstractMojo {
     private static final String GF_API_GROUP_ID = "org.glassfish.main.common";
     private static final String GF_API_ARTIFACT_ID = "simple-glassfish-api";
     private static final String DEFAULT_GF_VERSION = "8.0.0";
-    private static String gfVersion;
+    // Resolved by the mojo thread, or in background by the prepare goal
+    private static volatile String gfVersion;
+    private static final Object gfVersionLock = new Object();
 
     /*******************************************
      * Parameters supplied by configuration
@@ -155,6 +181,20 @@ public abstract class AbstractServerMojo extends AbstractMojo {
     @Parameter
     protected Map<String, String> ports;
 
+    /**
+     * When true, every network listener configured by {@code port} or {@code ports} gets a free port
+     * instead of the configured one, so that several servers can run on one host at the same time.
+     * <p/>
+     * The ports are reserved in {@code cacheDirectory/ports}, which keeps concurrent builds sharing the
+     * cache directory from picking the same port. All goals of a build use the same ports, and a reused
+     * daemon keeps its ports. Can also be set via the Maven property {@code glassfish.dynamicPorts}.
+     * <p/>
+     * The port of every listener is exported as the project property {@code glassfish.port.<listener>},
+     * e.g. {@code glassfish.port.http-listener}, whether it was allocated or configured.
+     */
+    @Parameter(property = "glassfish.dynamicPorts", defaultValue = "false")
+    protected boolean dynamicPorts;
+
     /**
      * Specify the set of properties required to bootstrap GlassFishRuntime.
      * For example:
@@ -275,6 +315,147 @@ public abstract class AbstractServerMojo extends AbstractMojo {
     @Parameter(property = "glassfish.vm.args")
     protected String vmArgsProperty;
 
+    /**
+     * When true, the forked GlassFish JVM uses a dynamic AppCDS archive to speed up class loading.
+     * <p/>
+     * The first fork creates the archive when the forked JVM exits (requires JDK 13 or newer),
+     * later forks reuse it. The archive is keyed by the JDK version, the classpath and the checksums
+     * of the GlassFish and plugin jars, so it is rebuilt whenever any of them changes.
+     * Can also be set via the Maven property {@code glassfish.cds}.
+     */
+    @Parameter(property = "glassfish.cds", defaultValue = "false")
+    protected boolean cds;
+
+    /**
+     * When true, the forked GlassFish JVM is started as a daemon which keeps running after the build.
+     * <p/>
+     * The next build with the same server ID, GlassFish version, properties and JVM arguments reconnects
+     * to the running daemon instead of starting a new JVM. A daemon started with a different configuration
+     * is stopped and replaced. The stop goal of the build which started or reused the daemon leaves it running,
+     * a stop goal executed on its own stops it. Can also be set via the Maven property {@code glassfish.daemon}.
+     */
+    @Parameter(property = "glassfish.daemon", defaultValue = "false")
+    protected boolean daemon;
+
+    /**
+     * Maximum time in seconds the forked GlassFish JVM may take from its launch until it is ready.
+     * A JVM which is not ready by then is destroyed, and the goal waiting for it fails.
+     * Can also be set via the Maven property {@code glassfish.readyTimeout}.
+     */
+    @Parameter(property = "glassfish.readyTimeout", defaultValue = "300")
+    protected long readyTimeout;
+
+    /**
+     * Directory where the plugin keeps data reused across builds, such as AppCDS archives
+     * and the registrations of GlassFish daemons.
+     */
+    @Parameter(property = "glassfish.cache.directory", defaultValue = "${user.home}/.m2/embedded-glassfish")
+    protected File cacheDirectory;
+
+    /**
+     * When true, the GlassFish version this plugin was built against and the resolved GlassFish jar are remembered
+     * in {@code cacheDirectory/resolution.properties}, so that later builds neither build the POM of the plugin
+     * nor resolve the jar again. SNAPSHOT versions are always resolved.
+     * Can also be set via the Maven property {@code glassfish.resolutionCache}.
+     */
+    @Parameter(property = "glassfish.resolutionCache", defaultValue = "true")
+    protected boolean resolutionCache;
+
+    /**
+     * When true, the instance root is stored as a snapshot once all configured admin commands succeeded.
+     * <p/>
+     * Later starts with the same GlassFish version, bootstrap and GlassFish properties, ports and admin commands
+     * boot from a copy of the snapshot and skip the admin commands it already contains. Snapshots are stored
+     * under {@code cacheDirectory/snapshots}. With {@code dynamicPorts}, the ports of the network listeners are
+     * not part of the key, since they are applied at every start.
+     * Ignored if {@code instanceRoot} or {@code configFile} is set.
+     * Can also be set via the Maven property {@code glassfish.domainSnapshot}.
+     */
+    @Parameter(property = "glassfish.domainSnapshot", defaultValue = "false")
+    protected boolean domainSnapshot;
+
+    /**
+     * When true, the forked GlassFish JVM is started with a Java agent which can replace the bytecode of loaded classes.
+     * <p/>
+     * If only class files of an exploded application changed, the run goal then redefines the changed classes
+     * instead of redeploying the application, which keeps the application state. Redefinition is limited to changes
+     * of method bodies, other changes fall back to a redeployment. Can also be set via the Maven property
+     * {@code glassfish.hotSwap}.
+     */
+    @Parameter(property = "glassfish.hotSwap", defaultValue = "false")
+    protected boolean hotSwap;
+
+    /**
+     * Maximum number of applications deployed concurrently by the run goal.
+     * <p/>
+     * With the default of 1, applications are deployed one after another in the configured order.
+     * With more threads, independent applications are deployed concurrently, an application which has
+     * to be deployed after others lists their names in the {@code dependsOn} configuration of its deploy goal.
+     * Can also be set via the Maven property {@code glassfish.deployThreads}.
+     */
+    @Parameter(property = "glassfish.deployThreads", defaultValue = "1")
+    protected int deployThreads;
+
+    /**
+     * When true, the forked GlassFish JVM runs a Java Flight Recording from its launch.
+     * <p/>
+     * The recording is written to {@code target/glassfish.jfr} by the stop goal or the dump goal, together with
+     * a summary of the hot methods, allocation sites, garbage collection pauses and contended locks in
+     * {@code target/glassfish-jfr-summary.txt}. Can also be set via the Maven property {@code glassfish.jfr}.
+     */
+    @Parameter(property = "glassfish.jfr", defaultValue = "false")
+    protected boolean jfr;
+
+    /**
+     * Settings of the flight recording, {@code profile}, {@code default} or the path of a custom
+     * settings file. Can also be set via the Maven property {@code glassfish.jfr.settings}.
+     */
+    @Parameter(property = "glassfish.jfr.settings", defaultValue = "profile")
+    protected String jfrSettings;
+
+    /**
+     * Time in seconds after which a command sent to the forked GlassFish, such as a deployment or an admin command,
+     * is considered hanging. A thread dump, a class histogram and a heap summary of the forked JVM are then written to
+     * {@code target/glassfish-diagnostics}, while the command goes on. 0 disables the automatic diagnostics.
+     * Can also be set via the Maven property {@code glassfish.diagnosticsTimeout}.
+     */
+    @Parameter(property = "glassfish.diagnosticsTimeout", defaultValue = "120")
+    protected long diagnosticsTimeout;
+
+    /**
+     * Time in seconds a command sent to the forked GlassFish may take. A command which takes longer fails the goal
+     * and is cancelled in the forked JVM, a forked JVM which does not stop within this time is killed. 0 disables
+     * the limit. Can also be set via the Maven property {@code glassfish.commandTimeout}.
+     */
+    @Parameter(property = "glassfish.commandTimeout", defaultValue = "600")
+    protected long commandTimeout;
+
+    /**
+     * When true, a forked GlassFish which exits unexpectedly is started again, and the deployments and admin
+     * commands which succeeded before are replayed, before further commands are sent to it. The server is
+     * restarted at most 3 times. Can also be set via the Maven property {@code glassfish.restartOnCrash}.
+     */
+    @Parameter(property = "glassfish.restartOnCrash", defaultValue = "false")
+    protected boolean restartOnCrash;
+
+    /**
+     * Lowest level of the log records of the forked GlassFish printed to the console, e.g. {@code WARNING},
+     * or {@code OFF} to print none. The complete log is written to {@code target/glassfish-<serverID>.log},
+     * and the last records below this level are printed when a goal fails.
+     * Can also be set via the Maven property {@code glassfish.consoleLogLevel}.
+     */
+    @Parameter(property = "glassfish.consoleLogLevel", defaultValue = "INFO")
+    protected String consoleLogLevel;
+
+    /**
+     * Loopback port on which the forked GlassFish accepts tools such as IDE plugins and tests, which deploy
+     * applications or run admin commands while the build goes on, see {@link GlassFishControlClient}.
+     * 0 selects a free port, -1 disables the port. The port and the token a client needs are written to
+     * {@code target/glassfish-<serverID>.client}. Can also be set via the Maven property {@code glassfish.clientPort}.
+     */
+    @Parameter(property = "glassfish.clientPort", defaultValue = "-1")
+    protected int clientPort;
+
     /*===============================================
      * End of parameters supplied by configuration
      ***********************************************/
@@ -327,16 +508,9 @@ public abstract class AbstractServerMojo extends AbstractMojo {
      * End of dependencies injected by Maven
      ***************************************/
 
-    // HashMap with Key=serverId, Value=Bootstrap ClassLoader
-    protected static HashMap<String, ClassLoader> classLoaders = new HashMap();
+    // Bootstrap ClassLoader shared by the in-process servers, see ServerRegistry for the per-server state
     private static ClassLoader classLoader;
 
-    // Forked GlassFish process state — shared across all goals within a single build
-    private static Process forkedProcess;
-    private static BufferedWriter forkedWriter;
-    private static BufferedReader forkedReader;
-    private static volatile CountDownLatch commandLatch;
-
     public abstract void execute() throws MojoExecutionException, MojoFailureException;
 
     protected ClassLoader getClassLoader() throws MojoExecutionException {
@@ -358,13 +532,14 @@ public abstract class AbstractServerMojo extends AbstractMojo {
         }
 */
         try {
-            if (classLoader != null) {
-                return classLoader;
-            } else {
-                classLoader = hasGlassFishInstallation() ? getInstalledGFClassLoader() : getUberGFClassLoader();
-                printClassPaths("Created New Bootstrap ClassLoader. ServerId = " + serverID
-                        + ", ClassPaths = ", classLoader);
+            synchronized (AbstractServerMojo.class) {
+                if (classLoader == null) {
+                    classLoader = hasGlassFishInstallation() ? getInstalledGFClassLoader() : getUberGFClassLoader();
+                    printClassPaths("Created New Bootstrap ClassLoader. ServerId = " + serverID
+                            + ", ClassPaths = ", classLoader);
+                }
             }
+            getServer().setClassLoader(classLoader);
             return classLoader;
         } catch (Exception ex) {
             throw new MojoExecutionException(ex.getMessage(), ex);
@@ -372,12 +547,21 @@ public abstract class AbstractServerMojo extends AbstractMojo {
     }
 
     protected void cleanupClassLoader(String serverId) {
-        ClassLoader cl = classLoaders.remove(serverID);
+        ClassLoader cl = ServerRegistry.get(serverId).getClassLoader();
+        ServerRegistry.remove(serverId);
         if (cl != null) {
-            System.out.println("Cleaned up ClassLoader for ServerID " + serverID);
+            System.out.println("Cleaned up ClassLoader for ServerID " + serverId);
         }
     }
 
+    /**
+     * Returns the state of the server with the configured server ID, which is shared by all goals
+     * of the build.
+     */
+    private ServerRegistry.Server getServer() {
+        return ServerRegistry.get(serverID);
+    }
+
     private void printClassPaths(String msg, ClassLoader classLoader) {
         ClassLoader cl = classLoader;
         while (cl != null && cl instanceof URLClassLoader) {
@@ -439,7 +623,8 @@ public abstract class AbstractServerMojo extends AbstractMojo {
      * <ol>
      * <li>If glassfishVersion parameter defined, return it</li>
      * <li>If Embedded All depenendy defined in dependency management, return its version</li>
-     * <li>Returns the version of simple-glassfish-api as defined in plugin's pom - the version this plugin was built against</li>
+     * <li>Returns the version of simple-glassfish-api as defined in plugin's pom - the version this plugin was built against,
+     * remembered in the {@link ResolutionCache}</li>
      * </ol>
      *
      * @param gfMvnPlugin
@@ -454,22 +639,42 @@ public abstract class AbstractServerMojo extends AbstractMojo {
         if (dependencyManagementInfo != null) {
             return dependencyManagementInfo.getVersion();
         }
-        if (gfVersion != null) {
+        String version = gfVersion;
+        if (version != null) {
+            return version;
+        }
+        synchronized (gfVersionLock) {
+            if (gfVersion == null) {
+                gfVersion = lookupGlassfishVersion(gfMvnPlugin);
+            }
             return gfVersion;
         }
+    }
+
+    // Reads the GlassFish version this plugin was built against from the cache or from the POM of the plugin
+    private String lookupGlassfishVersion(Artifact gfMvnPlugin) throws Exception {
+        String cachedVersion = resolutionCache
+                ? ResolutionCache.load(cacheDirectory).getGlassFishVersion(gfMvnPlugin.getVersion()) : null;
+        if (cachedVersion != null) {
+            return cachedVersion;
+        }
         ResolutionGroup resGroup = artifactMetadataSource.retrieve(
                 gfMvnPlugin, localRepository, remoteRepositories);
         MavenProject pomProject = projectBuilder.buildFromRepository(resGroup.getPomArtifact(),
                 remoteRepositories, localRepository);
+        String version = null;
         List<Dependency> dependencies = pomProject.getOriginalModel().getDependencies();
         for (Dependency dependency : dependencies) {
             if (GF_API_GROUP_ID.equals(dependency.getGroupId()) &&
                     GF_API_ARTIFACT_ID.equals(dependency.getArtifactId())) {
-                gfVersion = dependency.getVersion();
+                version = dependency.getVersion();
             }
         }
-        gfVersion = gfVersion != null ? gfVersion : DEFAULT_GF_VERSION;
-        return gfVersion;
+        version = version != null ? version : DEFAULT_GF_VERSION;
+        if (resolutionCache) {
+            ResolutionCache.load(cacheDirectory).putGlassFishVersion(gfMvnPlugin.getVersion(), version);
+        }
+        return version;
     }
 
     private ClassLoader getUberGFClassLoader() throws Exception {
@@ -477,9 +682,13 @@ public abstract class AbstractServerMojo extends AbstractMojo {
         if (gfUber != null) {
             return getClass().getClassLoader();
         }
-        return new URLClassLoader(
-                new URL[]{resolveGlassFishArtifact().getFile().toURI().toURL()},
-                getClass().getClassLoader());
+        long startTime = System.currentTimeMillis();
+        URL gfJarUrl = getGlassFishJar().toURI().toURL();
+        getTimings().recordSince(StartupTimings.MAVEN, "artifact resolution", startTime);
+        startTime = System.currentTimeMillis();
+        ClassLoader gfClassLoader = new URLClassLoader(new URL[]{gfJarUrl}, getClass().getClassLoader());
+        getTimings().recordSince(StartupTimings.MAVEN, "class loader creation", startTime);
+        return gfClassLoader;
     }
 
     /**
@@ -494,12 +703,22 @@ public abstract class AbstractServerMojo extends AbstractMojo {
             Artifact gfMvnPlugin = (Artifact) project.getPluginArtifactMap().get(thisArtifactId);
             String version = getGlassfishVersion(gfMvnPlugin);
             gfUber = factory.createArtifact(EMBEDDED_GROUP_ID, EMBEDDED_ALL, version, "compile", "jar");
-            resolver.resolve(gfUber, remoteRepositories, localRepository);
+            ResolutionCache cache = resolutionCache ? ResolutionCache.load(cacheDirectory) : null;
+            File cachedJar = cache != null ? cache.getJar(version) : null;
+            if (cachedJar != null) {
+                gfUber.setFile(cachedJar);
+                gfUber.setResolved(true);
+            } else {
+                resolver.resolve(gfUber, remoteRepositories, localRepository);
+                if (cache != null) {
+                    cache.putJar(version, gfUber.getFile());
+                }
+            }
         }
         return gfUber;
     }
 
-    protected Properties getGlassFishProperties() {
+    protected Properties getGlassFishProperties() throws IOException {
         Properties props = new Properties();
 
         if (instanceRoot != null) {
@@ -527,34 +746,185 @@ public abstract class AbstractServerMojo extends AbstractMojo {
             props.setProperty("org.glassfish.embeddable.configFileReadOnly", "false");
         }
 
+        for (Map.Entry<String, String> listenerPort : getListenerPorts().entrySet()) {
+            String networkListener = String.format(NETWORK_LISTENER_KEY, listenerPort.getKey());
+            props.setProperty(networkListener + ".port", listenerPort.getValue());
+            props.setProperty(networkListener + ".enabled", "true");
+            project.getProperties().setProperty(PORT_PROPERTY_PREFIX + listenerPort.getKey(), listenerPort.getValue());
+        }
+
+        if (!autoDelete) {
+            props.setProperty("org.glassfish.embeddable.autoDelete", "false");
+        }
+
+        load(glassfishPropertiesFile, props);
+        load(glassfishProperties, props);
+
+        DomainSnapshot snapshot = getServer().getDomainSnapshot();
+        if (snapshot != null) {
+            snapshot.applyTo(props);
+        }
+
+        return props;
+    }
+
+    /**
+     * Returns the base URI of the applications, {@code http://localhost:<http-listener port>/}.
+     */
+    protected URI getHttpBaseUri() throws IOException {
+        String httpPort = getListenerPorts().get("http-listener");
+        return URI.create("http://localhost:" + (httpPort == null ? "8080" : httpPort) + "/");
+    }
+
+    /**
+     * Returns the port of every configured network listener by listener name, allocated by the
+     * {@link PortAllocator} if {@code dynamicPorts} is enabled.
+     */
+    protected Map<String, String> getListenerPorts() throws IOException {
         if (ports == null && port == -1) {
             port = 8080;
         }
+        Map<String, String> listenerPorts = new LinkedHashMap<>();
         if (port != -1 && configFile == null) {
-            String httpListener = String.format(NETWORK_LISTENER_KEY, "http-listener");
-            props.setProperty(httpListener + ".port", String.valueOf(port));
-            props.setProperty(httpListener + ".enabled", "true");
+            listenerPorts.put("http-listener", String.valueOf(port));
         }
-
         if (ports != null) {
             for (String listenerName : ports.keySet()) {
                 String portNumber = ports.get(listenerName);
                 if (portNumber != null && portNumber.trim().length() > 0) {
-                    String networkListener = String.format(NETWORK_LISTENER_KEY, listenerName);
-                    props.setProperty(networkListener + ".port", portNumber);
-                    props.setProperty(networkListener + ".enabled", "true");
+                    listenerPorts.put(listenerName, portNumber);
                 }
             }
         }
+        if (!dynamicPorts || listenerPorts.isEmpty()) {
+            return listenerPorts;
+        }
+        ServerRegistry.Server server = getServer();
+        synchronized (server) {
+            Map<String, String> allocatedPorts = server.getPorts();
+            if (allocatedPorts == null || !allocatedPorts.keySet().equals(listenerPorts.keySet())) {
+                allocatedPorts = allocatePorts(server, listenerPorts.keySet());
+            }
+            return allocatedPorts;
+        }
+    }
 
-        if (!autoDelete) {
-            props.setProperty("org.glassfish.embeddable.autoDelete", "false");
+    private Map<String, String> allocatePorts(ServerRegistry.Server server, Collection<String> listeners)
+            throws IOException {
+        File daemonPortsFile = new File(new File(cacheDirectory, "daemons"), serverID + "-ports.properties");
+        if (daemon) {
+            // the ports of a running daemon are bound by it, and the daemon is only reused with the same ports
+            DaemonState state = DaemonState.read(getDaemonStateFile());
+            if (state != null && state.isAlive() && daemonPortsFile.isFile()) {
+                Properties daemonPorts = new Properties();
+                try (FileInputStream fis = new FileInputStream(daemonPortsFile)) {
+                    daemonPorts.load(fis);
+                }
+                if (daemonPorts.stringPropertyNames().equals(new HashSet<>(listeners))) {
+                    Map<String, String> allocatedPorts = new LinkedHashMap<>();
+                    for (String listener : listeners) {
+                        allocatedPorts.put(listener, daemonPorts.getProperty(listener));
+                    }
+                    server.setPorts(allocatedPorts, List.of());
+                    return allocatedPorts;
+                }
+            }
         }
+        PortAllocator allocator = new PortAllocator(new File(cacheDirectory, "ports"));
+        Map<String, String> allocatedPorts = new LinkedHashMap<>();
+        List<PortAllocator.Reservation> reservations = new ArrayList<>();
+        try {
+            for (String listener : listeners) {
+                PortAllocator.Reservation reservation = allocator.reserve();
+                reservations.add(reservation);
+                allocatedPorts.put(listener, String.valueOf(reservation.getPort()));
+            }
+        } catch (IOException e) {
+            for (PortAllocator.Reservation reservation : reservations) {
+                reservation.close();
+            }
+            throw e;
+        }
+        server.setPorts(allocatedPorts, reservations);
+        System.out.println("Allocated ports " + allocatedPorts + " for server " + serverID);
+        if (daemon) {
+            Properties daemonPorts = new Properties();
+            daemonPorts.putAll(allocatedPorts);
+            Files.createDirectories(daemonPortsFile.getParentFile().toPath());
+            try (FileOutputStream fos = new FileOutputStream(daemonPortsFile)) {
+                daemonPorts.store(fos, "Ports of the GlassFish daemon " + serverID);
+            }
+        }
+        return allocatedPorts;
+    }
 
-        load(glassfishPropertiesFile, props);
-        load(glassfishProperties, props);
+    /**
+     * Looks up the domain snapshot for the current configuration if {@code domainSnapshot} is enabled.
+     * Must be called before the server is started, the properties returned by {@link #getGlassFishProperties()}
+     * then point to the snapshot or make the domain configuration writable for taking it.
+     */
+    protected void prepareDomainSnapshot() throws Exception {
+        getServer().setDomainSnapshot(null);
+        if (!domainSnapshot) {
+            return;
+        }
+        if (instanceRoot != null || configFile != null) {
+            System.err.println("Domain snapshot ignored, because instanceRoot or configFile is configured");
+            return;
+        }
+        List<String> commands = new ArrayList<>();
+        for (Properties configuration : getAdminCommandConfigurations()) {
+            Object configuredCommands = configuration.get("commands");
+            if (configuredCommands instanceof List) {
+                for (Object command : (List<?>) configuredCommands) {
+                    commands.add(String.valueOf(command));
+                }
+            }
+        }
+        if (commands.isEmpty()) {
+            return;
+        }
+        Properties glassfishProps = getGlassFishProperties();
+        if (dynamicPorts) {
+            // the ports are applied at every start, the snapshot does not depend on them
+            glassfishProps.keySet().removeIf(key -> key.toString().endsWith(".port")
+                    && key.toString().startsWith(String.format(NETWORK_LISTENER_KEY, "")));
+        }
+        String key = Checksums.sha256(
+                hasGlassFishInstallation() ? new File(installRoot).getAbsolutePath() : resolveGlassFishArtifact().getId(),
+                new TreeMap<>(getBootStrapProperties()).toString(),
+                new TreeMap<>(glassfishProps).toString(),
+                commands.toString());
+        File instanceDirectory;
+        if (daemon) {
+            // stable, so that the configuration of the daemon does not change between builds
+            instanceDirectory = new File(new File(cacheDirectory, "daemons"), serverID + "-domain");
+        } else {
+            // reused by the next build, which replaces it with a fresh copy of the snapshot
+            instanceDirectory = new File(project.getBuild().getDirectory(), "glassfish-" + serverID + "-domain");
+            if (autoDelete) {
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        DomainSnapshot.delete(instanceDirectory.toPath());
+                    } catch (IOException e) {
+                        System.err.println("Could not delete " + instanceDirectory + ": " + e.getMessage());
+                    }
+                }, "glassfish-snapshot-domain-cleanup"));
+            }
+        }
+        DomainSnapshot snapshot = DomainSnapshot.prepare(new File(cacheDirectory, "snapshots"), key, commands,
+                instanceDirectory);
+        getServer().setDomainSnapshot(snapshot);
+        System.out.println(snapshot.isRestored()
+                ? "Booting from domain snapshot " + snapshot.getSnapshotDirectory()
+                : "No domain snapshot found, it will be taken after the admin commands succeeded");
+    }
 
-        return props;
+    private void materializeDomainSnapshot() throws IOException {
+        DomainSnapshot snapshot = getServer().getDomainSnapshot();
+        if (snapshot != null) {
+            snapshot.materialize();
+        }
     }
 
     protected Properties getBootStrapProperties() {
@@ -669,7 +1039,74 @@ public abstract class AbstractServerMojo extends AbstractMojo {
      * @return the resolved GlassFish embedded-all jar file
      */
     protected File getGlassFishJar() throws Exception {
-        return resolveGlassFishArtifact().getFile();
+        return getGlassFishJar(awaitPreparedLaunch());
+    }
+
+    private File getGlassFishJar(PreparedLaunch prepared) throws Exception {
+        return prepared != null ? prepared.getGlassFishJar() : resolveGlassFishArtifact().getFile();
+    }
+
+    /**
+     * Resolves and verifies the GlassFish jar in background, and prepares the launch of the forked JVM:
+     * the classpath, an argument file and, if {@code cds} is enabled, the CDS archive.
+     * The start and run goals of this build use the prepared launch, see {@link #awaitPreparedLaunch()}.
+     */
+    protected void prepareLaunch() {
+        ServerRegistry.Server server = getServer();
+        CompletableFuture<PreparedLaunch> preparation = new CompletableFuture<>();
+        synchronized (server) {
+            if (server.getPreparedLaunch() != null) {
+                System.out.println("Launch of GlassFish " + serverID + " is already prepared");
+                return;
+            }
+            server.setPreparedLaunch(preparation);
+        }
+        Thread preparationThread = new Thread(() -> {
+            try {
+                long startTime = System.currentTimeMillis();
+                File gfJar = resolveGlassFishArtifact().getFile();
+                PreparedLaunch.verify(gfJar);
+                File pluginJar = getPluginJar();
+                CdsArchive cdsArchive = cds
+                        ? CdsArchive.forClasspath(new File(cacheDirectory, "cds"), List.of(pluginJar, gfJar)) : null;
+                File argFile = PreparedLaunch.writeArgFile(
+                        new File(project.getBuild().getDirectory(), "glassfish-" + serverID + ".args"),
+                        getLauncherArguments(pluginJar, gfJar));
+                preparation.complete(new PreparedLaunch(gfJar, pluginJar, cdsArchive, argFile));
+                System.out.println("Prepared the launch of GlassFish " + serverID + " in "
+                        + (System.currentTimeMillis() - startTime) + " ms, using " + gfJar);
+            } catch (Throwable e) {
+                preparation.completeExceptionally(e);
+            }
+        }, "glassfish-prepare-" + serverID);
+        preparationThread.setDaemon(true);
+        preparationThread.start();
+    }
+
+    /**
+     * Waits for the launch prepared by the prepare goal, if it ran in this build.
+     *
+     * @return the prepared launch, or null if the launch was not prepared or its preparation failed
+     */
+    private PreparedLaunch awaitPreparedLaunch() throws InterruptedException {
+        CompletableFuture<PreparedLaunch> preparation = getServer().getPreparedLaunch();
+        if (preparation == null) {
+            return null;
+        }
+        long startTime = System.currentTimeMillis();
+        boolean waiting = !preparation.isDone();
+        try {
+            return preparation.get();
+        } catch (ExecutionException e) {
+            System.err.println("Preparation of GlassFish " + serverID + " failed, resolving it again: "
+                    + e.getCause().getMessage());
+            getServer().setPreparedLaunch(null);
+            return null;
+        } finally {
+            if (waiting) {
+                getTimings().recordSince(StartupTimings.MAVEN, "wait for prepare", startTime);
+            }
+        }
     }
 
     /**
@@ -679,10 +1116,13 @@ public abstract class AbstractServerMojo extends AbstractMojo {
      *
      * @param bootstrapProps bootstrap properties
      * @param glassfishProps GlassFish properties
+     * @param runnerOptions options of the runner itself, stored without prefix
      * @return the written temp file
      */
-    protected File writeForkedConfig(Properties bootstrapProps, Properties glassfishProps) throws Exception {
+    protected File writeForkedConfig(Properties bootstrapProps, Properties glassfishProps,
+            Properties runnerOptions) throws Exception {
         Properties config = new Properties();
+        config.putAll(runnerOptions);
         config.setProperty(GlassFishForkedRunner.SECTION_SERVER_ID, serverID);
         for (String key : bootstrapProps.stringPropertyNames()) {
             config.setProperty(GlassFishForkedRunner.SECTION_BOOTSTRAP + key,
@@ -702,25 +1142,101 @@ public abstract class AbstractServerMojo extends AbstractMojo {
 
     /**
      * Returns true if GlassFish was started in a forked JVM by the start goal.
-     * Other goals use this to decide whether to communicate via stdin/stdout or in-process.
+     * Other goals use this to decide whether to communicate via the control connection or in-process.
      */
     protected boolean isForkedMode() {
-        return forkedWriter != null;
+        return getServer().getForkedServer() != null;
     }
 
     /**
      * Forks a new JVM running {@link GlassFishForkedRunner}, waits for the {@code READY} signal,
-     * then stores the process and streams in static fields for use by subsequent goals.
+     * then stores the connection to it in the {@link ServerRegistry} for use by subsequent goals.
+     * <p/>
+     * In daemon mode, a running daemon started with the same configuration is reused instead.
      */
     protected void startForkedGlassFish() throws Exception {
+        startForkedGlassFish(true);
+    }
+
+    /**
+     * Forks a new JVM running {@link GlassFishForkedRunner}, like {@link #startForkedGlassFish()}.
+     *
+     * @param waitForReady if false, returns as soon as the JVM was spawned, and the goals communicating
+     *                     with the forked GlassFish wait until it is ready
+     */
+    protected void startForkedGlassFish(boolean waitForReady) throws Exception {
+        ServerRegistry.Server server = getServer();
+        synchronized (server) {
+            if (server.getForkedServer() != null) {
+                System.out.println("Forked GlassFish " + serverID + " is already running");
+                return;
+            }
+            startForkedGlassFish(server);
+        }
+        if (waitForReady) {
+            getForkedServer();
+        }
+    }
+
+    private void startForkedGlassFish(ServerRegistry.Server server) throws Exception {
+        prepareDomainSnapshot();
         Properties bootstrapProps = getBootStrapProperties();
         Properties glassfishProps = getGlassFishProperties();
 
-        File configFile = writeForkedConfig(bootstrapProps, glassfishProps);
-
-        File gfJar = getGlassFishJar();
+        PreparedLaunch prepared = awaitPreparedLaunch();
+        long resolutionStartTime = System.currentTimeMillis();
+        File gfJar = getGlassFishJar(prepared);
         File pluginJar = getPluginJar();
-        String classpath = pluginJar.getAbsolutePath() + File.pathSeparator + gfJar.getAbsolutePath();
+        getTimings().recordSince(StartupTimings.MAVEN, "artifact resolution", resolutionStartTime);
+
+        Properties runnerOptions = new Properties();
+        runnerOptions.setProperty(GlassFishForkedRunner.SECTION_DEPLOY_THREADS, String.valueOf(deployThreads));
+        Level consoleLevel = Level.parse(consoleLogLevel.trim().toUpperCase(Locale.ROOT));
+        File daemonStateFile = getDaemonStateFile();
+        String daemonKey = null;
+        if (daemon) {
+            daemonKey = getDaemonKey(bootstrapProps, glassfishProps, gfJar, pluginJar);
+            long attachStartTime = System.currentTimeMillis();
+            if (attachToDaemon(daemonStateFile, daemonKey)) {
+                getTimings().recordSince(StartupTimings.MAVEN, "daemon attach", attachStartTime);
+                writeTimingReport();
+                if (jfr) {
+                    startFlightRecording();
+                }
+                return;
+            }
+            runnerOptions.setProperty(GlassFishForkedRunner.SECTION_DAEMON_STATE_FILE,
+                    daemonStateFile.getAbsolutePath());
+            runnerOptions.setProperty(GlassFishForkedRunner.SECTION_DAEMON_KEY, daemonKey);
+        }
+        if (jfr) {
+            runnerOptions.setProperty(GlassFishForkedRunner.SECTION_JFR_SETTINGS, jfrSettings);
+        }
+        if (clientPort >= 0) {
+            runnerOptions.setProperty(GlassFishForkedRunner.SECTION_CLIENT_PORT, String.valueOf(clientPort));
+            runnerOptions.setProperty(GlassFishForkedRunner.SECTION_CLIENT_FILE,
+                    new File(project.getBuild().getDirectory(), "glassfish-" + serverID + ".client").getAbsolutePath());
+        }
+        server.setFlightRecording(jfr);
+
+        // The forked process connects back with the token, its output then carries only the log
+        ServerSocket controlSocket = null;
+        String controlToken = null;
+        if (!daemon) {
+            controlSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+            controlToken = UUID.randomUUID().toString();
+            runnerOptions.setProperty(GlassFishForkedRunner.SECTION_CONTROL_PORT,
+                    String.valueOf(controlSocket.getLocalPort()));
+            runnerOptions.setProperty(GlassFishForkedRunner.SECTION_CONTROL_TOKEN, controlToken);
+        }
+
+        materializeDomainSnapshot();
+        File configFile = writeForkedConfig(bootstrapProps, glassfishProps, runnerOptions);
+
+        CdsArchive cdsArchive = !cds ? null
+                : prepared != null && prepared.getCdsArchive() != null ? prepared.getCdsArchive()
+                : CdsArchive.forClasspath(new File(cacheDirectory, "cds"), List.of(pluginJar, gfJar));
+        server.setCdsArchive(cdsArchive);
 
         String javaExecutable = ProcessHandle.current().info().command()
                 .orElseGet(() -> System.getProperty("java.home") + File.separator + "bin"
@@ -732,121 +1248,928 @@ public abstract class AbstractServerMojo extends AbstractMojo {
 
         List<String> command = new ArrayList<>();
         command.add(javaExecutable);
-        addArgumentsFromConfig(command);
-        command.add("--add-opens=java.base/java.io=ALL-UNNAMED");
-        command.add("--add-opens=java.base/java.lang=ALL-UNNAMED");
-        command.add("--add-opens=java.base/java.util=ALL-UNNAMED");
-        command.add("--add-opens=java.base/sun.nio.fs=ALL-UNNAMED");
-        command.add("--add-opens=java.base/sun.net.www.protocol.jrt=ALL-UNNAMED");
-        command.add("--add-opens=java.naming/javax.naming.spi=ALL-UNNAMED");
-        command.add("--add-opens=java.rmi/sun.rmi.transport=ALL-UNNAMED");
-        command.add("--add-opens=jdk.management/com.sun.management.internal=ALL-UNNAMED");
-        command.add("--add-exports=java.naming/com.sun.jndi.ldap=ALL-UNNAMED");
-        command.add("--add-exports=java.base/jdk.internal.vm.annotation=ALL-UNNAMED");
-        command.add("--add-opens=java.base/jdk.internal.vm.annotation=ALL-UNNAMED");
-        command.add("--add-exports=java.base/jdk.internal.loader=ALL-UNNAMED");
-        command.add("-cp");
-        command.add(classpath);
-        command.add(GlassFishForkedRunner.class.getName());
+        if (cdsArchive != null) {
+            command.addAll(cdsArchive.getJvmOptions());
+        }
+        command.addAll(getVmArguments());
+        if (hotSwap) {
+            command.add("-javaagent:" + pluginJar.getAbsolutePath());
+        }
+        if (prepared != null) {
+            command.add("@" + prepared.getArgFile().getAbsolutePath());
+        } else {
+            command.addAll(getLauncherArguments(pluginJar, gfJar));
+        }
         command.add(configFile.getAbsolutePath());
 
         ProcessBuilder pb = new ProcessBuilder(command);
         pb.redirectErrorStream(true);
-        forkedProcess = pb.start();
+        if (daemon) {
+            // The daemon outlives this build, so its output cannot go to our console
+            File logFile = new File(daemonStateFile.getParentFile(), serverID + ".log");
+            pb.redirectOutput(ProcessBuilder.Redirect.appendTo(logFile));
+            System.out.println("Starting GlassFish daemon, output is written to " + logFile);
+        }
+        long startTime = System.currentTimeMillis();
+        Process forkedProcess;
+        try {
+            forkedProcess = pb.start();
+        } catch (IOException e) {
+            if (controlSocket != null) {
+                controlSocket.close();
+            }
+            throw e;
+        }
+        getTimings().recordSince(StartupTimings.MAVEN, "JVM spawn", startTime);
+        ForkedLog log = null;
+        if (!daemon) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                if (forkedProcess.isAlive()) {
+                    forkedProcess.destroyForcibly();
+                }
+            }, "glassfish-forked-process-cleanup"));
+            File logFile = new File(project.getBuild().getDirectory(), "glassfish-" + serverID + ".log");
+            log = ForkedLog.start(forkedProcess, logFile, server.getRestarts() > 0, consoleLevel);
+            System.out.println("Forked GlassFish log is written to " + logFile + ", records below "
+                    + consoleLevel + " are not printed");
+        }
 
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            if (forkedProcess != null && forkedProcess.isAlive()) {
+        String finalDaemonKey = daemonKey;
+        ServerSocket finalControlSocket = controlSocket;
+        String finalControlToken = controlToken;
+        ForkedLog finalLog = log;
+        CompletableFuture<ForkedServer> readiness = new CompletableFuture<>();
+        Thread readinessThread = new Thread(() -> {
+            try {
+                ForkedServer forkedServer = daemon
+                        ? awaitDaemon(forkedProcess, daemonStateFile, finalDaemonKey)
+                        : awaitReady(forkedProcess, finalControlSocket, finalControlToken, finalLog);
+                System.out.println("Forked GlassFish JVM ready in " + (System.currentTimeMillis() - startTime)
+                        + " ms, " + describeCdsArchive(cdsArchive));
+                readiness.complete(forkedServer);
+            } catch (Throwable e) {
+                readiness.completeExceptionally(e);
+            }
+        }, "glassfish-readiness-" + serverID);
+        readinessThread.setDaemon(true);
+        readinessThread.start();
+        readiness.orTimeout(readyTimeout, TimeUnit.SECONDS).whenComplete((forkedServer, e) -> {
+            if (e != null && forkedProcess.isAlive()) {
                 forkedProcess.destroyForcibly();
             }
-        }, "glassfish-forked-process-cleanup"));
+        });
+        server.setForkedServer(readiness);
+    }
+
+    /**
+     * @return the options, the classpath and the main class of the forked JVM, which follow the JVM options
+     *         given by the user
+     */
+    private static List<String> getLauncherArguments(File pluginJar, File gfJar) {
+        List<String> arguments = new ArrayList<>();
+        arguments.add("--add-opens=java.base/java.io=ALL-UNNAMED");
+        arguments.add("--add-opens=java.base/java.lang=ALL-UNNAMED");
+        arguments.add("--add-opens=java.base/java.util=ALL-UNNAMED");
+        arguments.add("--add-opens=java.base/sun.nio.fs=ALL-UNNAMED");
+        arguments.add("--add-opens=java.base/sun.net.www.protocol.jrt=ALL-UNNAMED");
+        arguments.add("--add-opens=java.naming/javax.naming.spi=ALL-UNNAMED");
+        arguments.add("--add-opens=java.rmi/sun.rmi.transport=ALL-UNNAMED");
+        arguments.add("--add-opens=jdk.management/com.sun.management.internal=ALL-UNNAMED");
+        arguments.add("--add-exports=java.naming/com.sun.jndi.ldap=ALL-UNNAMED");
+        arguments.add("--add-exports=java.base/jdk.internal.vm.annotation=ALL-UNNAMED");
+        arguments.add("--add-opens=java.base/jdk.internal.vm.annotation=ALL-UNNAMED");
+        arguments.add("--add-exports=java.base/jdk.internal.loader=ALL-UNNAMED");
+        arguments.add("-cp");
+        arguments.add(pluginJar.getAbsolutePath() + File.pathSeparator + gfJar.getAbsolutePath());
+        arguments.add(GlassFishForkedRunner.class.getName());
+        return arguments;
+    }
+
+    /**
+     * Waits for the control connection of the forked process and its {@code READY} signal,
+     * then records the startup phases reported by the forked GlassFish.
+     */
+    private ForkedServer awaitReady(Process forkedProcess, ServerSocket controlSocket, String controlToken,
+            ForkedLog log) throws Exception {
+        long readyStartTime = System.currentTimeMillis();
+        ForkedServer forkedServer;
+        try (ServerSocket socket = controlSocket) {
+            forkedServer = ForkedServer.connect(forkedProcess, socket, controlToken, log);
+        } catch (IOException e) {
+            log.printHiddenRecords();
+            throw new IOException(e.getMessage() + ", its log is in " + log.getFile(), e);
+        }
+        return initForkedServer(forkedServer, readyStartTime);
+    }
 
-        forkedReader = new BufferedReader(new InputStreamReader(forkedProcess.getInputStream()));
+    /**
+     * Waits for the registration of the daemon, then records the startup phases reported by it.
+     */
+    private ForkedServer awaitDaemon(Process forkedProcess, File daemonStateFile, String daemonKey) throws Exception {
+        long readyStartTime = System.currentTimeMillis();
+        return initForkedServer(ForkedServer.attach(waitForDaemon(forkedProcess, daemonStateFile, daemonKey)),
+                readyStartTime);
+    }
+
+    private ForkedServer initForkedServer(ForkedServer forkedServer, long readyStartTime) throws Exception {
+        watchForkedServer(forkedServer);
+        getTimings().recordSince(StartupTimings.MAVEN, "wait for READY", readyStartTime);
+        recordStartupPhases(forkedServer.send(GlassFishForkedRunner.CMD_TIMINGS).getMessage());
+        recordMemoryUsage(forkedServer.send(GlassFishForkedRunner.CMD_MEMORY).getMessage());
+        writeTimingReport();
+        return forkedServer;
+    }
+
+    /**
+     * Waits until the forked GlassFish is ready, at most {@code readyTimeout} seconds after it was spawned.
+     *
+     * @return the time waited in milliseconds
+     */
+    protected long awaitForkedGlassFish() throws Exception {
+        long startTime = System.currentTimeMillis();
+        getForkedServer();
+        return System.currentTimeMillis() - startTime;
+    }
+
+    /**
+     * Returns the timings of the current server, which collect the phases of all goals of this build.
+     */
+    protected StartupTimings getTimings() {
+        return getServer().getTimings();
+    }
+
+    /**
+     * Writes the timing report to the build directory of the project.
+     */
+    protected void writeTimingReport() {
+        try {
+            getTimings().write(new File(project.getBuild().getDirectory()));
+        } catch (Exception e) {
+            System.err.println("Could not write the timing report: " + e.getMessage());
+        }
+    }
+
+    // Records the phases reported by PluginUtil.takeStartupPhases()
+    private void recordStartupPhases(String encodedPhases) {
+        if (encodedPhases == null || encodedPhases.isEmpty()) {
+            return;
+        }
+        for (String encodedPhase : encodedPhases.split(" ")) {
+            String[] parts = encodedPhase.split(",");
+            getTimings().record(StartupTimings.GLASSFISH, GlassFishForkedRunner.decodeArgument(parts[0]),
+                    Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        }
+    }
+
+    // Records the memory reported by PluginUtil.getMemoryUsage()
+    private void recordMemoryUsage(String encodedUsage) {
+        if (encodedUsage == null || encodedUsage.isEmpty()) {
+            return;
+        }
+        for (String encoded : encodedUsage.split(" ")) {
+            String[] parts = encoded.split("=");
+            getTimings().recordMemory(parts[0], Long.parseLong(parts[1]));
+        }
+    }
 
-        // Wait for READY signal, printing all lines until then (but not the READY line itself)
-        String line;
-        while ((line = forkedReader.readLine()) != null) {
-            if (GlassFishForkedRunner.RESP_READY.equals(line.trim())) {
-                break;
+    private static String describeCdsArchive(CdsArchive cdsArchive) {
+        if (cdsArchive == null) {
+            return "without CDS archive";
+        }
+        return cdsArchive.exists()
+                ? "using CDS archive " + cdsArchive.getArchive()
+                : "creating CDS archive " + cdsArchive.getArchive() + " on exit";
+    }
+
+    private List<String> getVmArguments() {
+        List<String> arguments = new ArrayList<>();
+        if (vmArgs != null) {
+            arguments.addAll(vmArgs);
+        }
+        if (vmArgsProperty != null && !vmArgsProperty.trim().isEmpty()) {
+            for (String arg : vmArgsProperty.trim().split("\\s+")) {
+                arguments.add(arg);
+            }
+        }
+        return arguments;
+    }
+
+    private File getDaemonStateFile() {
+        return new File(new File(cacheDirectory, "daemons"), serverID + ".properties");
+    }
+
+    /**
+     * Computes the key which decides whether a running daemon can be reused. It covers everything
+     * the forked JVM was launched with: server ID, GlassFish and plugin jars, properties and JVM options.
+     */
+    private String getDaemonKey(Properties bootstrapProps, Properties glassfishProps,
+            File gfJar, File pluginJar) {
+        return Checksums.sha256(serverID,
+                gfJar.getAbsolutePath(),
+                pluginJar.getAbsolutePath() + "|" + pluginJar.length() + "|" + pluginJar.lastModified(),
+                new TreeMap<>(bootstrapProps).toString(),
+                new TreeMap<>(glassfishProps).toString(),
+                getVmArguments().toString(),
+                String.valueOf(cds),
+                String.valueOf(deployThreads),
+                String.valueOf(hotSwap));
+    }
+
+    /**
+     * Connects to the daemon registered for this server ID if it runs with the same configuration.
+     * A daemon with a different configuration is stopped.
+     *
+     * @return true if connected to a running daemon
+     */
+    private boolean attachToDaemon(File stateFile, String daemonKey) throws Exception {
+        DaemonState state = DaemonState.read(stateFile);
+        if (state == null) {
+            return false;
+        }
+        if (!state.isAlive()) {
+            stateFile.delete();
+            return false;
+        }
+        long startTime = System.currentTimeMillis();
+        ForkedServer server;
+        try {
+            server = ForkedServer.attach(state);
+        } catch (IOException e) {
+            System.err.println("Could not connect to " + state + ": " + e.getMessage());
+            stateFile.delete();
+            return false;
+        }
+        if (!daemonKey.equals(state.getKey())) {
+            System.out.println("Configuration changed, stopping " + state);
+            server.stop();
+            return false;
+        }
+        watchForkedServer(server);
+        getServer().setForkedServer(CompletableFuture.completedFuture(server));
+        System.out.println("Attached to " + state + " in " + (System.currentTimeMillis() - startTime) + " ms");
+        return true;
+    }
+
+    private static DaemonState waitForDaemon(Process process, File stateFile, String daemonKey) throws Exception {
+        while (true) {
+            DaemonState state = DaemonState.read(stateFile);
+            if (state != null && state.getPid() == process.pid() && daemonKey.equals(state.getKey())) {
+                return state;
+            }
+            if (!process.isAlive()) {
+                throw new Exception("Forked GlassFish daemon ended before it was ready, exit code "
+                        + process.exitValue());
             }
-            System.out.println(line);
+            Thread.sleep(100);
         }
-        if (!forkedProcess.isAlive()) {
-            throw new Exception("Forked GlassFish process ended before sending READY");
+    }
+
+    /**
+     * Sends a command to the forked GlassFish process and waits for completion.
+     * An error reported by the forked process is printed.
+     */
+    protected ForkedServer.Response sendForkedCommand(String command) throws Exception {
+        return reportForkedResponse(getForkedServer(), command, awaitForkedCommand(command));
+    }
+
+    // Sends the command and waits for its response, capturing diagnostics if it hangs
+    private ForkedServer.Response awaitForkedCommand(String command) throws Exception {
+        ForkedServer forkedServer = getForkedServer();
+        CompletableFuture<ForkedServer.Response> future = watchForkedCommand(forkedServer, command,
+                forkedServer.submit(GlassFishForkedRunner.LANE_MAIN, command));
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
         }
+    }
 
-        // Pump remaining output in background; counts down commandLatch on OK_*/ERROR_* lines
-        Thread pumpThread = new Thread(() -> {
+    /**
+     * Sends all commands to the forked GlassFish process without waiting for the single responses,
+     * then waits for all of them. The commands are executed in the given order.
+     *
+     * @return responses in the order of the commands
+     */
+    protected List<ForkedServer.Response> sendForkedCommands(List<String> commands) throws Exception {
+        ForkedServer forkedServer = getForkedServer();
+        List<CompletableFuture<ForkedServer.Response>> futures = new ArrayList<>(commands.size());
+        for (String command : commands) {
+            futures.add(watchForkedCommand(forkedServer, command,
+                    forkedServer.submit(GlassFishForkedRunner.LANE_MAIN, command)));
+        }
+        List<ForkedServer.Response> responses = new ArrayList<>(commands.size());
+        for (int i = 0; i < commands.size(); i++) {
             try {
-                String pumpLine;
-                while ((pumpLine = forkedReader.readLine()) != null) {
-                    if (pumpLine.startsWith(GlassFishForkedRunner.RESP_OK)
-                            || pumpLine.startsWith(GlassFishForkedRunner.RESP_ERROR)) {
-                        CountDownLatch latch = commandLatch;
-                        if (latch != null) {
-                            latch.countDown();
-                        }
-                    } else {
-                        System.out.println(pumpLine);
-                        System.out.flush();
+                responses.add(reportForkedResponse(forkedServer, commands.get(i), futures.get(i).get()));
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * Sends a command to the forked GlassFish process without waiting for its response.
+     * An error reported by the forked process is printed.
+     *
+     * @param lane the lane to execute the command in, see {@link GlassFishForkedRunner}
+     */
+    protected CompletableFuture<ForkedServer.Response> submitForkedCommand(String lane, String command)
+            throws Exception {
+        ForkedServer forkedServer = getForkedServer();
+        return watchForkedCommand(forkedServer, command, forkedServer.submit(lane, command))
+                .thenApply(response -> reportForkedResponse(forkedServer, command, response));
+    }
+
+    /**
+     * Captures the diagnostics of the forked GlassFish if the command did not complete
+     * within {@code diagnosticsTimeout} seconds.
+     */
+    private CompletableFuture<ForkedServer.Response> watchForkedCommand(ForkedServer forkedServer, String command,
+            CompletableFuture<ForkedServer.Response> future) {
+        String description = ForkedServer.abbreviate(command);
+        if (diagnosticsTimeout > 0) {
+            CompletableFuture.delayedExecutor(diagnosticsTimeout, TimeUnit.SECONDS).execute(() -> {
+                if (!future.isDone()) {
+                    reportDiagnostics(forkedServer, "Command " + description + " takes longer than "
+                            + diagnosticsTimeout + " s");
+                }
+            });
+        }
+        ServerRegistry.Server server = getServer();
+        return future.handle((response, e) -> {
+            if (e instanceof TimeoutException) {
+                // before the goal fails, as the build may end with it
+                reportDiagnostics(forkedServer, e.getMessage());
+            } else if (e == null && !response.isError()
+                    && REPLAYED_COMMANDS.contains(command.split(" ", 2)[0])) {
+                server.addReplayedCommand(command);
+            }
+            if (e != null) {
+                printHiddenRecords(forkedServer);
+                throw new CompletionException(e);
+            }
+            return response;
+        });
+    }
+
+    private void reportDiagnostics(ForkedServer forkedServer, String reason) {
+        try {
+            File directory = captureDiagnostics(forkedServer);
+            System.err.println(reason + ", diagnostics of GlassFish " + serverID + " written to " + directory);
+        } catch (Exception e) {
+            System.err.println(reason + ", could not capture diagnostics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sets the command timeout of the connection and reports an unexpected exit of the forked JVM,
+     * restarting it if {@code restartOnCrash} is enabled.
+     */
+    private void watchForkedServer(ForkedServer forkedServer) {
+        forkedServer.setCommandTimeout(commandTimeout);
+        ServerRegistry.Server server = getServer();
+        forkedServer.onCrash(reason -> {
+            String message = "Forked GlassFish " + serverID + " ended unexpectedly with " + reason;
+            if (forkedServer.isDaemon()) {
+                System.err.println(message + ", see its log in " + getDaemonStateFile().getParentFile());
+            } else {
+                System.err.println(message + ", see its log in " + forkedServer.getLog().getFile());
+                forkedServer.getLog().printHiddenRecords();
+            }
+            if (restartOnCrash) {
+                Thread restartThread = new Thread(() -> restartForkedGlassFish(server, forkedServer),
+                        "glassfish-restart-" + serverID);
+                restartThread.setDaemon(true);
+                restartThread.start();
+            }
+        });
+    }
+
+    /**
+     * Starts a new forked GlassFish in place of the crashed one and replays the deployments and admin commands
+     * which succeeded before. Goals wait for the replay before they send their own commands.
+     */
+    private void restartForkedGlassFish(ServerRegistry.Server server, ForkedServer crashed) {
+        synchronized (server) {
+            CompletableFuture<ForkedServer> current = server.getForkedServer();
+            if (current == null || current.isCompletedExceptionally() || current.getNow(null) != crashed) {
+                // stopped or restarted meanwhile
+                return;
+            }
+            if (server.getRestarts() >= MAX_RESTARTS) {
+                System.err.println("Forked GlassFish " + serverID + " was restarted " + MAX_RESTARTS
+                        + " times already, not restarting it again");
+                return;
+            }
+            server.addRestart();
+            List<String> replayedCommands = server.getReplayedCommands();
+            System.err.println("Restarting forked GlassFish " + serverID + ", replaying "
+                    + replayedCommands.size() + " commands");
+            try {
+                startForkedGlassFish(server);
+            } catch (Exception e) {
+                System.err.println("Could not restart forked GlassFish " + serverID + ": " + e.getMessage());
+                server.setForkedServer(CompletableFuture.failedFuture(e));
+                return;
+            }
+            server.setForkedServer(server.getForkedServer().thenApply(forkedServer -> {
+                for (String command : replayedCommands) {
+                    try {
+                        reportForkedResponse(forkedServer, command,
+                                forkedServer.submit(GlassFishForkedRunner.LANE_MAIN, command).get());
+                    } catch (Exception e) {
+                        System.err.println("Could not replay [" + ForkedServer.abbreviate(command) + "]: "
+                                + e.getMessage());
                     }
                 }
-            } catch (Exception ignored) {
+                return forkedServer;
+            }));
+        }
+    }
+
+    private File newDiagnosticsDirectory() {
+        return new File(new File(project.getBuild().getDirectory(), DIAGNOSTICS_DIRECTORY),
+                new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date()));
+    }
+
+    /**
+     * Writes a thread dump, a class histogram and a heap summary of the forked GlassFish
+     * to a new directory in {@code target/glassfish-diagnostics}.
+     *
+     * @return the directory
+     */
+    protected File captureDiagnostics() throws Exception {
+        return captureDiagnostics(getForkedServer());
+    }
+
+    private File captureDiagnostics(ForkedServer forkedServer) throws Exception {
+        File directory = newDiagnosticsDirectory();
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put(GlassFishForkedRunner.CMD_THREAD_DUMP, "threads.txt");
+        files.put(GlassFishForkedRunner.CMD_HEAP_HISTOGRAM, "class-histogram.txt");
+        files.put(GlassFishForkedRunner.CMD_HEAP_SUMMARY, "heap-summary.txt");
+        Map<String, CompletableFuture<ForkedServer.Response>> futures = new LinkedHashMap<>();
+        for (Map.Entry<String, String> file : files.entrySet()) {
+            String path = new File(directory, file.getValue()).getAbsolutePath();
+            // a lane of its own, so the diagnostics do not wait for the hanging command
+            futures.put(file.getValue(), forkedServer.submit(GlassFishForkedRunner.LANE_DIAGNOSTICS,
+                    file.getKey() + " " + GlassFishForkedRunner.encodeArgument(path)));
+        }
+        for (Map.Entry<String, CompletableFuture<ForkedServer.Response>> future : futures.entrySet()) {
+            ForkedServer.Response response = future.getValue().get(DIAGNOSTICS_WAIT_SECONDS, TimeUnit.SECONDS);
+            if (response.isError()) {
+                System.err.println("Could not write " + future.getKey() + ": " + response.getMessage());
             }
-        }, "glassfish-stdout-pump");
-        pumpThread.setDaemon(true);
-        pumpThread.start();
+        }
+        if (!forkedServer.isDaemon()) {
+            Files.write(new File(directory, "output.txt").toPath(), forkedServer.getLog().getTail().getLines());
+        }
+        return directory;
+    }
 
-        forkedWriter = new BufferedWriter(new OutputStreamWriter(forkedProcess.getOutputStream()));
+    /**
+     * Asks the forked GlassFish to redefine the given classes of the application deployed
+     * from the given directory with its hot swap agent.
+     *
+     * @param archivePath directory the application was deployed from
+     * @param classFiles class file by class name
+     * @return future completed with false if the classes could not be redefined,
+     *         or if no loaded class of the application matched
+     */
+    protected CompletableFuture<Boolean> redefineForkedClasses(String lane, String archivePath,
+            Map<String, String> classFiles) {
+        StringBuilder command = new StringBuilder(GlassFishForkedRunner.CMD_REDEFINE)
+                .append(' ').append(GlassFishForkedRunner.encodeArgument(new File(archivePath).getAbsolutePath()));
+        for (Map.Entry<String, String> classFile : classFiles.entrySet()) {
+            command.append(' ').append(GlassFishForkedRunner.encodeArgument(classFile.getKey()))
+                    .append('=').append(GlassFishForkedRunner.encodeArgument(classFile.getValue()));
+        }
+        try {
+            return getForkedServer().submit(lane, command.toString()).thenApply(response -> {
+                if (response.isError()) {
+                    System.out.println("Could not hot swap " + classFiles.keySet() + ", redeploying: "
+                            + response.getMessage());
+                    return false;
+                }
+                if ("0".equals(response.getMessage())) {
+                    System.out.println("No loaded class of " + classFiles.keySet() + " in " + archivePath
+                            + ", redeploying");
+                    return false;
+                }
+                System.out.println("Hot swapped " + response.getMessage() + " loaded classes of "
+                        + classFiles.keySet());
+                return true;
+            });
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
     }
 
-    private void addArgumentsFromConfig(List<String> command) {
-        if (vmArgs != null) {
-            command.addAll(vmArgs);
+    /**
+     * Returns the connection to the forked GlassFish, waiting until it is ready if it was started
+     * without waiting.
+     */
+    private ForkedServer getForkedServer() throws IOException {
+        CompletableFuture<ForkedServer> forkedServer = getServer().getForkedServer();
+        if (forkedServer == null) {
+            throw new IOException("Forked GlassFish " + serverID + " is not running");
         }
-        if (vmArgsProperty != null && !vmArgsProperty.trim().isEmpty()) {
-            for (String arg : vmArgsProperty.trim().split("\\s+")) {
-                command.add(arg);
+        if (!forkedServer.isDone()) {
+            System.out.println("Waiting for the forked GlassFish " + serverID + " to become ready");
+        }
+        try {
+            return forkedServer.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the forked GlassFish " + serverID);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new IOException("Forked GlassFish " + serverID + " did not become ready within "
+                        + readyTimeout + " seconds");
             }
+            throw new IOException("Forked GlassFish " + serverID + " failed to start: "
+                    + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static ForkedServer.Response reportForkedResponse(ForkedServer forkedServer, String command,
+            ForkedServer.Response response) {
+        if (response.isError()) {
+            System.err.println("Forked GlassFish failed to execute [" + command + "]: " + response);
+            printHiddenRecords(forkedServer);
+        }
+        return response;
+    }
+
+    // Prints the log records of the forked GlassFish below the console level, which may explain a failure
+    private static void printHiddenRecords(ForkedServer forkedServer) {
+        if (forkedServer.getLog() != null) {
+            forkedServer.getLog().printHiddenRecords();
         }
     }
 
     /**
-     * Sends a command to the forked GlassFish process via stdin and waits for completion.
-     * Blocks until the pump thread receives an {@code OK_*} or {@code ERROR_*} response line.
+     * Runs the admin commands in a single batch, either in the forked GlassFish with one round trip,
+     * or in-process, and prints the exit status and time taken by every command.
+     *
+     * @param failFast if true, the commands following a failed command are skipped and the goal fails,
+     *                 otherwise all commands are executed and failures are only reported
+     * @return the result of every command
      */
-    protected void sendForkedCommand(String command) throws Exception {
-        commandLatch = new CountDownLatch(1);
-        forkedWriter.write(command);
-        forkedWriter.newLine();
-        forkedWriter.flush();
-        commandLatch.await();
-        commandLatch = null;
+    protected List<AdminCommandResult> runAdminCommands(List<String> commandLines, boolean failFast)
+            throws Exception {
+        DomainSnapshot snapshot = getServer().getDomainSnapshot();
+        if (snapshot != null) {
+            List<String> remaining = snapshot.filterCommands(commandLines);
+            if (remaining.size() < commandLines.size()) {
+                System.out.println("Skipped " + (commandLines.size() - remaining.size())
+                        + " admin commands already applied by the domain snapshot");
+            }
+            commandLines = remaining;
+            if (commandLines.isEmpty()) {
+                return new ArrayList<>();
+            }
+        }
+        long startTime = System.currentTimeMillis();
+        String[] encodedResults;
+        if (isForkedMode()) {
+            StringBuilder request = new StringBuilder(GlassFishForkedRunner.CMD_ADMIN_BATCH).append(' ')
+                    .append(failFast ? GlassFishForkedRunner.BATCH_FAIL_FAST : GlassFishForkedRunner.BATCH_CONTINUE);
+            for (String commandLine : commandLines) {
+                request.append(' ').append(GlassFishForkedRunner.encodeArgument(commandLine));
+            }
+            String message = awaitForkedCommand(request.toString()).getMessage();
+            encodedResults = message == null || message.isEmpty() ? new String[0] : message.split(" ");
+        } else {
+            ClassLoader cl = getClassLoader();
+            Method m = cl.loadClass(PluginUtil.class.getName()).getMethod("runCommands",
+                    String.class, String[].class, boolean.class);
+            encodedResults = (String[]) m.invoke(null, serverID, commandLines.toArray(new String[0]), failFast);
+        }
+        List<AdminCommandResult> results = AdminCommandResult.decodeAll(encodedResults);
+        long commandStartTime = startTime;
+        for (AdminCommandResult result : results) {
+            // the commands of a batch run one after another
+            getTimings().record(StartupTimings.ADMIN, result.getCommand(), commandStartTime, result.getMillis());
+            commandStartTime += result.getMillis();
+        }
+        writeTimingReport();
+
+        System.out.println("Executed " + results.size() + " admin commands in "
+                + (System.currentTimeMillis() - startTime) + " ms:");
+        AdminCommandResult firstFailure = null;
+        for (AdminCommandResult result : results) {
+            System.out.println("  " + result);
+            if (result.isFailure()) {
+                System.out.println("    " + result.getOutput().trim());
+                if (firstFailure == null) {
+                    firstFailure = result;
+                }
+            }
+        }
+        if (failFast && firstFailure != null) {
+            throw new MojoExecutionException("Admin command [" + firstFailure.getCommand() + "] failed: "
+                    + firstFailure.getOutput().trim());
+        }
+        if (snapshot != null) {
+            List<String> succeeded = new ArrayList<>();
+            for (AdminCommandResult result : results) {
+                if (!result.isFailure() && !AdminCommandResult.SKIPPED.equals(result.getExitStatus())) {
+                    succeeded.add(result.getCommand());
+                }
+            }
+            if (snapshot.commandsSucceeded(succeeded)) {
+                takeDomainSnapshot(snapshot.getSnapshotDirectory());
+            }
+        }
+        return results;
+    }
+
+    private void takeDomainSnapshot(File snapshotDirectory) throws Exception {
+        long startTime = System.currentTimeMillis();
+        snapshotDirectory.getParentFile().mkdirs();
+        if (isForkedMode()) {
+            ForkedServer.Response response = sendForkedCommand(GlassFishForkedRunner.CMD_SNAPSHOT + " "
+                    + GlassFishForkedRunner.encodeArgument(snapshotDirectory.getAbsolutePath()));
+            if (response.isError()) {
+                return;
+            }
+        } else {
+            try {
+                DomainSnapshot.store(Paths.get(getInstanceRoot(serverID, getClassLoader())),
+                        snapshotDirectory.toPath());
+            } catch (Exception e) {
+                System.err.println("Could not take domain snapshot: " + e.getMessage());
+                return;
+            }
+        }
+        System.out.println("Took domain snapshot " + snapshotDirectory + " in "
+                + (System.currentTimeMillis() - startTime) + " ms");
     }
 
     /**
      * Sends STOP to the forked GlassFish process and waits for it to exit,
-     * then clears the static forked state.
+     * then forgets the state of the server. A daemon is left running and only disconnected.
      */
     protected void stopForkedGlassFish() throws Exception {
-        sendForkedCommand(GlassFishForkedRunner.CMD_STOP);
-        forkedProcess.waitFor();
-        forkedProcess = null;
-        forkedWriter = null;
-        forkedReader = null;
+        ServerRegistry.Server server = getServer();
+        synchronized (server) {
+            if (server.getForkedServer() == null) {
+                return;
+            }
+            ForkedServer forkedServer;
+            try {
+                forkedServer = getForkedServer();
+            } catch (IOException e) {
+                // the forked JVM did not start, it was already destroyed
+                System.err.println(e.getMessage());
+                ServerRegistry.remove(serverID);
+                return;
+            }
+            if (server.isFlightRecording()) {
+                try {
+                    dumpFlightRecording();
+                } catch (Exception e) {
+                    System.err.println("Could not write the flight recording: " + e.getMessage());
+                }
+            }
+            if (forkedServer.isDaemon() && daemon) {
+                forkedServer.detach();
+                System.out.println("GlassFish daemon keeps running, pid " + forkedServer.getPid()
+                        + ". Run the stop goal to stop it.");
+            } else {
+                forkedServer.stop();
+            }
+            CdsArchive cdsArchive = server.getCdsArchive();
+            if (cdsArchive != null && cdsArchive.commit()) {
+                System.out.println("Created CDS archive " + cdsArchive.getArchive());
+            }
+            ServerRegistry.remove(serverID);
+        }
+    }
+
+    /**
+     * Starts a flight recording with {@code jfrSettings} in the forked GlassFish, unless one is running already.
+     *
+     * @return true if the recording runs
+     */
+    protected boolean startFlightRecording() throws Exception {
+        ForkedServer.Response response = sendForkedCommand(GlassFishForkedRunner.CMD_JFR_START + " " + jfrSettings);
+        if (response.isError()) {
+            return false;
+        }
+        getServer().setFlightRecording(true);
+        System.out.println("Flight recording of GlassFish " + serverID + " runs with settings " + jfrSettings);
+        return true;
+    }
+
+    /**
+     * Writes the flight recording of the forked GlassFish to the build directory and summarizes it,
+     * see {@link JfrSummary}. The recording goes on.
+     *
+     * @return the summary, or null if no flight recording runs
+     */
+    protected File dumpFlightRecording() throws Exception {
+        File recording = new File(project.getBuild().getDirectory(), JfrSummary.RECORDING);
+        ForkedServer.Response response = sendForkedCommand(GlassFishForkedRunner.CMD_JFR_DUMP + " "
+                + GlassFishForkedRunner.encodeArgument(recording.getAbsolutePath()));
+        if (response.isError()) {
+            return null;
+        }
+        File summary = JfrSummary.write(recording);
+        System.out.println("Flight recording written to " + recording + ", summary in " + summary);
+        return summary;
+    }
+
+    /**
+     * Stops the daemon registered for this server ID, if there is one.
+     *
+     * @return true if a daemon was stopped
+     */
+    protected boolean stopRegisteredDaemon() throws Exception {
+        File stateFile = getDaemonStateFile();
+        DaemonState state = DaemonState.read(stateFile);
+        if (state == null || !state.isAlive()) {
+            return false;
+        }
+        System.out.println("Stopping " + state);
+        ForkedServer.attach(state).stop();
+        return true;
     }
 
     public void startGlassFish(String serverId, ClassLoader cl, Properties bootstrapProperties,
                                Properties glassfishProperties) throws Exception {
+        materializeDomainSnapshot();
         Class clazz = cl.loadClass(PluginUtil.class.getName());
         Method m = clazz.getMethod("startGlassFish", new Class[]{String.class,
                 ClassLoader.class, Properties.class, Properties.class});
         m.invoke(null, new Object[]{serverId, cl, bootstrapProperties, glassfishProperties});
+        String[] phases = (String[]) clazz.getMethod("takeStartupPhases").invoke(null);
+        recordStartupPhases(String.join(" ", phases));
+        writeTimingReport();
+    }
+
+    private String getInstanceRoot(String serverId, ClassLoader cl) throws Exception {
+        Class clazz = cl.loadClass(PluginUtil.class.getName());
+        Method m = clazz.getMethod("getInstanceRoot", new Class[]{String.class});
+        return (String) m.invoke(null, new Object[]{serverId});
     }
 
     public void stopGlassFish(String serverId, ClassLoader cl) throws Exception {
         Class clazz = cl.loadClass(PluginUtil.class.getName());
         Method m = clazz.getMethod("stopGlassFish", new Class[]{String.class});
         m.invoke(null, new Object[]{serverId});
+        ServerRegistry.get(serverId).resetTimings();
+        ServerRegistry.get(serverId).releasePorts();
+    }
+
+    // Retrieve all the "admin" goals defined in the plugin.
+    protected List<Properties> getAdminCommandConfigurations() {
+        return getGoalConfigurations("admin", "commands");
+    }
+
+    protected List<Properties> getGoalConfigurations(String goalName, String nonLeafNodeName) {
+        List<Properties> result = new ArrayList<>();
+
+        Plugin embeddedPlugin = getPlugin("embedded-glassfish-maven-plugin");
+        if (embeddedPlugin == null) {
+            // plugin invoked from the command line only
+            return result;
+        }
+
+        List<PluginExecution> executions = getGoals(embeddedPlugin, goalName);
+
+        for (PluginExecution pluginExecution : executions) {
+            result.add(getConfigurations(pluginExecution, embeddedPlugin, nonLeafNodeName));
+        }
+
+        /* If no matching goal specified, fall back to plugin-level configuration */
+        if (executions.isEmpty()) {
+            result.add(getConfigurations(null, embeddedPlugin, nonLeafNodeName));
+        }
+
+        return result;
+    }
+
+    /**
+     * From the maven project retrieve the plugin by given name.
+     *
+     * @param name Name of the plugin
+     * @return Plugin by given name defined in the maven project
+     */
+    private Plugin getPlugin(String name) {
+        List plugins = project.getModel().getBuild().getPlugins();
+        for (Object plugin : plugins) {
+            if (((Plugin) plugin).getArtifactId().equals(name)) {
+                return (Plugin) plugin;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get all the goals by given name in the plugin.
+     *
+     * @param plugin Plugin to which the goal belongs.
+     * @param goalName Name of the goals to be retrieved from the plugin
+     * @return List of goals by given name in the given plugin
+     */
+    private List<PluginExecution> getGoals(Plugin plugin, String goalName) {
+        List executions = plugin.getExecutions();
+        List<PluginExecution> goals = new ArrayList<>();
+        for (Object execution : executions) {
+            PluginExecution pe = (PluginExecution) execution;
+            List allGoals = pe.getGoals();
+            for (Object goal : allGoals) {
+                if (((String) goal).equals(goalName)) {
+                    goals.add(pe);
+                }
+            }
+        }
+        return goals;
+    }
+
+    private Properties getConfigurations(PluginExecution goal, Plugin plugin,
+            String... nonLeafNodeNames) {
+        Xpp3Dom config = (Xpp3Dom) plugin.getConfiguration();
+
+        Properties configurations = new Properties();
+
+        // retrieve configuration options at the plugin level.
+        if (config != null) {
+            configurations.putAll(getConfigurations(config));
+            if (nonLeafNodeNames != null) {
+                for (String nonLeafNodeName : nonLeafNodeNames) {
+                    configurations.put(nonLeafNodeName, getConfigurationsAsList(
+                            config.getChild(nonLeafNodeName)));
+                }
+            }
+        }
+
+        // retrieve configuration options at goal level.
+        if (goal != null) {
+            config = (Xpp3Dom) goal.getConfiguration();
+            if (config != null) {
+                configurations.putAll(getConfigurations(config));
+                if (nonLeafNodeNames != null) {
+                    for (String nonLeafNodeName : nonLeafNodeNames) {
+                        List<String> value = (List<String>) configurations.get(nonLeafNodeName);
+                        value.addAll(getConfigurationsAsList(config.getChild(nonLeafNodeName)));
+                        configurations.put(nonLeafNodeName, value);
+                    }
+                }
+            }
+        }
+
+        return configurations;
+    }
+
+    /**
+     * Get all the leaf level i.e., string property-values in the given node.
+     *
+     * @param node node from which the property-values to be retrieved.
+     * @return all the leaf level i.e., string property-values of the given node.
+     */
+    private Properties getConfigurations(Xpp3Dom node) {
+        Properties properties = new Properties();
+        if (node != null) {
+            Xpp3Dom[] configs = node.getChildren();
+            if (configs != null) {
+                for (Xpp3Dom config : configs) {
+                    if (config.getValue() != null) { // The child is at the leaf level, so it has string prop-value.
+                        properties.setProperty(config.getName(), config.getValue());
+                    }
+                }
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Read the configurations that are like this:
+     * <p/>
+     * <configurations>
+     * <configuration>a=b</configuration>
+     * <configuration>x=y</configuration>
+     * </configurations>
+     *
+     * @param node Base node from where the configurations should be read.
+     * @return List of configurations.
+     */
+    private List<String> getConfigurationsAsList(Xpp3Dom node) {
+        List<String> configurations = new ArrayList<>();
+        if (node != null) {
+            Xpp3Dom[] configs = node.getChildren();
+            if (configs != null) {
+                for (Xpp3Dom config : configs) {
+                    if (config.getValue() != null) { // The child is at the leaf level, so it has string prop-value.
+                        configurations.add(config.getValue());
+                    }
+                }
+            }
+        }
+        return configurations;
     }
 
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a single admin command executed as part of a batch, see
+ * {@link PluginUtil#runCommands(String, String[], boolean)}.
+ * <p>
+ * Results cross class loader and process boundaries in their encoded form,
+ * {@code <exitStatus>,<millis>,<command>,<output>} with URL encoded command and output,
+ * which contains neither spaces nor line breaks.
+ */
+final class AdminCommandResult {
+
+    static final String SUCCESS = "SUCCESS";
+    static final String WARNING = "WARNING";
+    static final String FAILURE = "FAILURE";
+    static final String SKIPPED = "SKIPPED";
+
+    private final String command;
+    private final String exitStatus;
+    private final long millis;
+    private final String output;
+
+    AdminCommandResult(String command, String exitStatus, long millis, String output) {
+        this.command = command;
+        this.exitStatus = exitStatus;
+        this.millis = millis;
+        this.output = output != null ? output : "";
+    }
+
+    String getCommand() {
+        return command;
+    }
+
+    String getExitStatus() {
+        return exitStatus;
+    }
+
+    long getMillis() {
+        return millis;
+    }
+
+    String getOutput() {
+        return output;
+    }
+
+    boolean isFailure() {
+        return FAILURE.equals(exitStatus);
+    }
+
+    String encode() {
+        return exitStatus + "," + millis + "," + GlassFishForkedRunner.encodeArgument(command) + ","
+                + GlassFishForkedRunner.encodeArgument(output);
+    }
+
+    static AdminCommandResult decode(String encoded) {
+        String[] parts = encoded.split(",", 4);
+        return new AdminCommandResult(GlassFishForkedRunner.decodeArgument(parts[2]), parts[0],
+                Long.parseLong(parts[1]), GlassFishForkedRunner.decodeArgument(parts[3]));
+    }
+
+    static List<AdminCommandResult> decodeAll(String[] encoded) {
+        List<AdminCommandResult> results = new ArrayList<>(encoded.length);
+        for (String result : encoded) {
+            if (!result.isEmpty()) {
+                results.add(decode(result));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-8s %6d ms  %s", exitStatus, millis, command);
+    }
+}
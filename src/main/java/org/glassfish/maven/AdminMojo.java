@@ -22,7 +22,7 @@ import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 
-import java.lang.reflect.Method;
+import java.util.Arrays;
 
 /**
  * This Mojo runs post startup adminstrative commands on the Embedded GlassFish.
@@ -46,28 +46,24 @@ public class AdminMojo extends AbstractServerMojo {
     @Parameter(property = "commands")
     protected String[] commands;
 
+    /**
+     * When true, the commands following a failed command are skipped and the goal fails.
+     * Otherwise, all commands are executed and failed commands are only reported.
+     * Can also be set via the Maven property {@code glassfish.admin.failFast}.
+     */
+    @Parameter(property = "glassfish.admin.failFast", defaultValue = "false")
+    protected boolean failFast;
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
         try {
-            if (isForkedMode()) {
-                for (String command : commands) {
-                    sendForkedCommand(GlassFishForkedRunner.CMD_ADMIN + " " + command);
-                }
-            } else {
-                runCommand(serverID, getClassLoader(), commands);
-            }
+            runAdminCommands(Arrays.asList(commands), failFast);
+        } catch (MojoExecutionException ex) {
+            throw ex;
         } catch (Exception ex) {
             ex.printStackTrace();
             throw new MojoExecutionException(ex.getMessage(), ex);
         }
     }
 
-    public void runCommand(String serverId, ClassLoader cl,
-                           String[] commandLines) throws Exception {
-        Class clazz = cl.loadClass(PluginUtil.class.getName());
-        Method m = clazz.getMethod("runCommand", new Class[]{
-                String.class, String[].class});
-        m.invoke(null, new Object[]{serverId, commandLines});
-    }
-
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+
+/**
+ * This Mojo waits until the forked GlassFish launched by the start goal with
+ * {@code async} enabled is ready, at most {@code readyTimeout} seconds after its launch.
+ * <p/>
+ * Goals which communicate with the server wait for it anyway, this goal makes the point explicit,
+ * e.g. before tests which only access the server over HTTP.
+ */
+@Mojo(name = "await", defaultPhase = LifecyclePhase.PRE_INTEGRATION_TEST)
+public class AwaitMojo extends AbstractServerMojo {
+
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (!isForkedMode()) {
+            // an in-process GlassFish is ready when the start goal returns
+            return;
+        }
+        try {
+            long millis = awaitForkedGlassFish();
+            System.out.println("Waited " + millis + " ms for GlassFish " + serverID + " to become ready");
+        } catch (Exception ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary protocol of the client port of {@link GlassFishForkedRunner}, through which tools drive
+ * a forked GlassFish directly, see {@link GlassFishControlClient}.
+ * <p>
+ * A client starts with the magic number, the protocol version and the token published in the client file.
+ * The runner answers with {@code READY} and then executes requests like the requests of the build,
+ * see {@link GlassFishForkedRunner}. Strings are written as their length in bytes, -1 for null,
+ * followed by their UTF-8 bytes.
+ * <pre>
+ *   handshake: int magic, byte version, string token -&gt; string READY
+ *   request:   long id, string lane, string command, string argument
+ *   response:  long id, string status, string message
+ * </pre>
+ */
+final class BinaryProtocol {
+
+    static final int MAGIC = 0x47464350;
+    static final byte VERSION = 1;
+
+    // Guards against reading garbage as the length of a string
+    private static final int MAX_STRING_LENGTH = 64 * 1024 * 1024;
+
+    private BinaryProtocol() {
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > MAX_STRING_LENGTH) {
+            throw new IOException("String of " + length + " bytes exceeds the protocol limit");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
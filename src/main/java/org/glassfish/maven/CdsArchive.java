@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dynamic AppCDS archive for the forked GlassFish JVM.
+ * <p>
+ * The archive file name is derived from the JDK version, the exact classpath and the
+ * checksums of the jars on it, so any change of those inputs leads to a new archive.
+ * When no archive exists yet, the forked JVM is started with {@code -XX:ArchiveClassesAtExit}
+ * pointing to a temporary file, which is moved into place by {@link #commit()} once
+ * the forked JVM has exited normally. Later forks load the archive with
+ * {@code -XX:SharedArchiveFile}.
+ */
+final class CdsArchive {
+
+    private static final String ARCHIVE_PREFIX = "glassfish-cds-";
+    private static final String ARCHIVE_SUFFIX = ".jsa";
+    private static final long STALE_ARCHIVE_AGE = TimeUnit.DAYS.toMillis(30);
+
+    // Dynamic archives (-XX:ArchiveClassesAtExit) are supported since JDK 13
+    private static final int MIN_JAVA_VERSION = 13;
+
+    private final File archive;
+    private final File dumpFile;
+
+    private CdsArchive(File archive, File dumpFile) {
+        this.archive = archive;
+        this.dumpFile = dumpFile;
+    }
+
+    /**
+     * Creates the archive descriptor for the given classpath.
+     *
+     * @param directory directory holding the archives
+     * @param classpath classpath of the forked JVM, in the order it is passed to the JVM
+     * @return the archive descriptor, or null if the running JDK does not support dynamic archives
+     */
+    static CdsArchive forClasspath(File directory, List<File> classpath) throws IOException {
+        if (Runtime.version().feature() < MIN_JAVA_VERSION) {
+            System.err.println("Dynamic AppCDS archives require JDK " + MIN_JAVA_VERSION
+                    + " or newer, running " + Runtime.version() + ". CDS archive is disabled.");
+            return null;
+        }
+        List<String> keyParts = new ArrayList<>();
+        keyParts.add(System.getProperty("java.vm.vendor"));
+        keyParts.add(System.getProperty("java.vm.version"));
+        keyParts.add(System.getProperty("java.home"));
+        for (File jar : classpath) {
+            keyParts.add(jar.getAbsolutePath());
+            keyParts.add(Checksums.sha256(jar));
+        }
+        String key = Checksums.sha256(keyParts.toArray(new String[0])).substring(0, 32);
+        Files.createDirectories(directory.toPath());
+        File archive = new File(directory, ARCHIVE_PREFIX + key + ARCHIVE_SUFFIX);
+        File dumpFile = new File(directory, ARCHIVE_PREFIX + key + "-" + ProcessHandle.current().pid()
+                + ARCHIVE_SUFFIX + ".tmp");
+        CdsArchive cdsArchive = new CdsArchive(archive, dumpFile);
+        cdsArchive.adoptFinishedDumps(key);
+        return cdsArchive;
+    }
+
+    /**
+     * A GlassFish daemon dumps its archive when it is stopped by a later build, which cannot commit it.
+     * Such dumps are picked up here once they are complete.
+     */
+    private void adoptFinishedDumps(String key) throws IOException {
+        if (exists()) {
+            return;
+        }
+        File[] dumps = archive.getParentFile().listFiles(
+                (dir, name) -> name.startsWith(ARCHIVE_PREFIX + key + "-") && name.endsWith(ARCHIVE_SUFFIX + ".tmp"));
+        if (dumps == null) {
+            return;
+        }
+        long threshold = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(1);
+        for (File dump : dumps) {
+            if (!exists() && dump.length() > 0 && dump.lastModified() < threshold) {
+                Files.move(dump.toPath(), archive.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+    }
+
+    /**
+     * @return true if the archive already exists and will be used by the forked JVM
+     */
+    boolean exists() {
+        return archive.isFile() && archive.length() > 0;
+    }
+
+    File getArchive() {
+        return archive;
+    }
+
+    /**
+     * @return the JVM options to either use the existing archive or to create it on exit
+     */
+    List<String> getJvmOptions() {
+        List<String> options = new ArrayList<>();
+        if (exists()) {
+            // Keep the archive alive for pruning of unused archives
+            archive.setLastModified(System.currentTimeMillis());
+            options.add("-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+        } else {
+            options.add("-XX:ArchiveClassesAtExit=" + dumpFile.getAbsolutePath());
+        }
+        options.add("-Xshare:auto");
+        // Classes that cannot be archived (e.g. old class file versions) are reported as warnings
+        options.add("-Xlog:cds*=off");
+        return options;
+    }
+
+    /**
+     * Moves the archive dumped by the exited forked JVM into place and removes archives
+     * that have not been used for a long time.
+     *
+     * @return true if a new archive was stored
+     */
+    boolean commit() throws IOException {
+        if (!dumpFile.isFile()) {
+            return false;
+        }
+        if (dumpFile.length() == 0) {
+            Files.deleteIfExists(dumpFile.toPath());
+            return false;
+        }
+        Files.move(dumpFile.toPath(), archive.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        pruneStaleArchives();
+        return true;
+    }
+
+    private void pruneStaleArchives() {
+        File[] files = archive.getParentFile().listFiles(
+                (dir, name) -> name.startsWith(ARCHIVE_PREFIX) && name.contains(ARCHIVE_SUFFIX));
+        if (files == null) {
+            return;
+        }
+        long threshold = System.currentTimeMillis() - STALE_ARCHIVE_AGE;
+        for (File file : files) {
+            if (!file.equals(archive) && file.lastModified() < threshold && !file.delete()) {
+                System.err.println("Could not delete stale CDS archive " + file);
+            }
+        }
+    }
+}
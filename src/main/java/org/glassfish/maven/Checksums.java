@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SHA-256 helpers used to key the caches kept by the plugin.
+ * <p>
+ * File digests are remembered for the lifetime of the Maven JVM, keyed by path, size and
+ * modification time, so a large artifact such as {@code glassfish-embedded-all} is read
+ * at most once per build.
+ */
+final class Checksums {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Files from this size on are read through memory mapped windows of MAPPED_WINDOW_SIZE bytes
+    private static final long MAPPED_THRESHOLD = 1024 * 1024;
+    private static final long MAPPED_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    // Key = path|length|lastModified, Value = hex digest
+    private static final Map<String, String> fileDigests = new ConcurrentHashMap<>();
+
+    private Checksums() {
+    }
+
+    /**
+     * Returns the hex encoded SHA-256 digest of the given file content.
+     */
+    static String sha256(File file) throws IOException {
+        String cacheKey = cacheKey(file);
+        String digest = fileDigests.get(cacheKey);
+        if (digest == null) {
+            MessageDigest md = newDigest();
+            if (file.length() >= MAPPED_THRESHOLD) {
+                updateMapped(md, file);
+            } else {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                try (InputStream in = new FileInputStream(file)) {
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        md.update(buffer, 0, read);
+                    }
+                }
+            }
+            digest = toHex(md.digest());
+            fileDigests.put(cacheKey, digest);
+        }
+        return digest;
+    }
+
+    /**
+     * Remembers the digest of a file recorded by a persistent cache, so that it is not read again
+     * while it keeps its size and modification time.
+     */
+    static void remember(File file, String digest) {
+        fileDigests.put(cacheKey(file), digest);
+    }
+
+    private static String cacheKey(File file) {
+        return file.getAbsolutePath() + "|" + file.length() + "|" + file.lastModified();
+    }
+
+    // Avoids copying large archives through a heap buffer
+    private static void updateMapped(MessageDigest md, File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += MAPPED_WINDOW_SIZE) {
+                md.update(channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(MAPPED_WINDOW_SIZE, size - position)));
+            }
+        }
+    }
+
+    /**
+     * Returns the hex encoded SHA-256 digest of the given strings, each terminated by a newline.
+     */
+    static String sha256(String... values) {
+        MessageDigest md = newDigest();
+        for (String value : values) {
+            md.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+            md.update((byte) '\n');
+        }
+        return toHex(md.digest());
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
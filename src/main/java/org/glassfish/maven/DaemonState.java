@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Registration of a GlassFish daemon, i.e. a forked GlassFish JVM that outlives the Maven build
+ * that started it.
+ * <p>
+ * The daemon writes this state to a file once GlassFish is started and deletes it when it stops.
+ * Later builds read the file to reconnect to the daemon through its loopback control port,
+ * provided that the daemon was started with the same configuration key.
+ * <p>
+ * The client port of a forked GlassFish is published in the same format, with the server id as key,
+ * see {@link GlassFishControlClient}.
+ */
+final class DaemonState {
+
+    private static final String PID = "pid";
+    private static final String PORT = "port";
+    private static final String KEY = "key";
+    private static final String TOKEN = "token";
+
+    private final long pid;
+    private final int port;
+    private final String key;
+    private final String token;
+
+    DaemonState(long pid, int port, String key, String token) {
+        this.pid = pid;
+        this.port = port;
+        this.key = key;
+        this.token = token;
+    }
+
+    long getPid() {
+        return pid;
+    }
+
+    int getPort() {
+        return port;
+    }
+
+    /**
+     * @return hash of the configuration the daemon was started with
+     */
+    String getKey() {
+        return key;
+    }
+
+    /**
+     * @return secret a client has to send as the first line after connecting to the control port
+     */
+    String getToken() {
+        return token;
+    }
+
+    boolean isAlive() {
+        return ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false);
+    }
+
+    /**
+     * Reads the daemon state.
+     *
+     * @return the daemon state, or null if the file does not exist or is incomplete
+     */
+    static DaemonState read(File stateFile) {
+        if (!stateFile.isFile()) {
+            return null;
+        }
+        Properties props = new Properties();
+        try (FileInputStream fis = new FileInputStream(stateFile)) {
+            props.load(fis);
+            return new DaemonState(Long.parseLong(props.getProperty(PID)),
+                    Integer.parseInt(props.getProperty(PORT)),
+                    props.getProperty(KEY), props.getProperty(TOKEN));
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Atomically replaces the state file, readable only by the current user.
+     */
+    void write(File stateFile) throws IOException {
+        Properties props = new Properties();
+        props.setProperty(PID, String.valueOf(pid));
+        props.setProperty(PORT, String.valueOf(port));
+        props.setProperty(KEY, key);
+        props.setProperty(TOKEN, token);
+        Files.createDirectories(stateFile.getParentFile().toPath());
+        File tmpFile = new File(stateFile.getPath() + "." + pid + ".tmp");
+        tmpFile.createNewFile();
+        tmpFile.setReadable(false, false);
+        tmpFile.setReadable(true, true);
+        try (FileOutputStream fos = new FileOutputStream(tmpFile)) {
+            props.store(fos, "GlassFish daemon");
+        }
+        Files.move(tmpFile.toPath(), stateFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public String toString() {
+        return "GlassFish daemon [pid=" + pid + ", port=" + port + "]";
+    }
+}
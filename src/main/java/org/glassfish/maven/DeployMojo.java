@@ -20,6 +20,7 @@ import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.ResolutionScope;
 
 import java.io.File;
 
@@ -32,19 +33,25 @@ import java.io.File;
  *
  * @author bhavanishankar@dev.java.net
  */
-@Mojo(name = "deploy", defaultPhase = LifecyclePhase.PRE_INTEGRATION_TEST)
+@Mojo(name = "deploy", defaultPhase = LifecyclePhase.PRE_INTEGRATION_TEST,
+        requiresDependencyResolution = ResolutionScope.RUNTIME)
 public class DeployMojo extends AbstractDeployMojo {
 
     public void execute() throws MojoExecutionException, MojoFailureException {
         try {
+            long startTime = System.currentTimeMillis();
+            // assembles the exploded layout, if enabled
+            String archivePath = getApp();
             if (isForkedMode()) {
                 String[] params = getDeploymentParameters();
                 String paramStr = params.length > 0 ? " " + String.join(" ", params) : "";
-                sendForkedCommand(GlassFishForkedRunner.CMD_DEPLOY + " " + getApp() + paramStr);
+                sendForkedCommand(GlassFishForkedRunner.CMD_DEPLOY + " " + archivePath + paramStr);
             } else {
                 doDeploy(serverID, getClassLoader(), getBootStrapProperties(),
-                        getGlassFishProperties(), new File(getApp()), getDeploymentParameters());
+                        getGlassFishProperties(), new File(archivePath), getDeploymentParameters());
             }
+            getTimings().recordSince(StartupTimings.DEPLOY, archivePath, startTime);
+            writeTimingReport();
         } catch (Exception e) {
             throw new MojoExecutionException(e.getMessage(), e);
         }
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Fingerprint of a deployed application: size and SHA-256 digest of its archive or exploded directory,
+ * together with the deployment parameters.
+ * <p>
+ * Two fingerprints match if the content and the parameters are equal, an archive which was rebuilt
+ * with identical content therefore does not need to be redeployed.
+ * The digests are cached by {@link Checksums} under the path, size and modification time of every file,
+ * so recomputing the fingerprint of an untouched application does not read it again.
+ */
+final class DeploymentFingerprint {
+
+    private final long size;
+    private final String digest;
+    private final List<String> deploymentParams;
+    // Key = path relative to an exploded directory, Value = digest; null for archives
+    private final Map<String, String> files;
+
+    private DeploymentFingerprint(long size, String digest, List<String> deploymentParams, Map<String, String> files) {
+        this.size = size;
+        this.digest = digest;
+        this.deploymentParams = deploymentParams;
+        this.files = files;
+    }
+
+    static DeploymentFingerprint of(File application, String[] deploymentParams) throws IOException {
+        List<String> params = Arrays.asList(deploymentParams.clone());
+        if (!application.isDirectory()) {
+            return new DeploymentFingerprint(application.length(), Checksums.sha256(application), params, null);
+        }
+        Path root = application.toPath();
+        List<Path> files;
+        // exploded applications may link to the build output
+        try (Stream<Path> paths = Files.walk(root, FileVisitOption.FOLLOW_LINKS)) {
+            files = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        MessageDigest md = Checksums.newDigest();
+        long size = 0;
+        Map<String, String> fileDigests = new TreeMap<>();
+        for (Path path : files) {
+            File file = path.toFile();
+            String relativePath = root.relativize(path).toString().replace(File.separatorChar, '/');
+            String fileDigest = Checksums.sha256(file);
+            size += file.length();
+            fileDigests.put(relativePath, fileDigest);
+            md.update(relativePath.getBytes(UTF_8));
+            md.update((byte) '\n');
+            md.update(fileDigest.getBytes(UTF_8));
+            md.update((byte) '\n');
+        }
+        return new DeploymentFingerprint(size, Checksums.toHex(md.digest()), params, fileDigests);
+    }
+
+    /**
+     * @return true if the application has to be redeployed to match this fingerprint
+     */
+    boolean differsFrom(DeploymentFingerprint previous) {
+        return previous == null
+                || size != previous.size
+                || !digest.equals(previous.digest)
+                || !deploymentParams.equals(previous.deploymentParams);
+    }
+
+    /**
+     * Returns the files of an exploded directory which were added, modified or removed since the previous
+     * fingerprint, as paths relative to the directory separated by {@code /}.
+     *
+     * @return the changed files, or null if the changes cannot be determined, e.g. for an archive
+     *         or changed deployment parameters
+     */
+    Set<String> changedFiles(DeploymentFingerprint previous) {
+        if (previous == null || files == null || previous.files == null
+                || !deploymentParams.equals(previous.deploymentParams)) {
+            return null;
+        }
+        Set<String> changed = new TreeSet<>();
+        for (Map.Entry<String, String> file : files.entrySet()) {
+            if (!file.getValue().equals(previous.files.get(file.getKey()))) {
+                changed.add(file.getKey());
+            }
+        }
+        for (String previousFile : previous.files.keySet()) {
+            if (!files.containsKey(previousFile)) {
+                changed.add(previousFile);
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public String toString() {
+        return size + " bytes, sha256 " + digest.substring(0, 12);
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Watches the archives and exploded directories of deployed applications for changes.
+ * <p>
+ * An archive is watched through its parent directory, an exploded directory recursively.
+ * Events are collected until no further event arrives within a quiet period, so that a build
+ * writing many files is reported as a single change.
+ */
+final class DeploymentWatcher implements Closeable {
+
+    private final WatchService watchService;
+    private final List<Path> applications;
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+
+    /**
+     * @param applications archives or exploded directories, the indices of this list identify the changed applications
+     */
+    DeploymentWatcher(List<Path> applications) throws IOException {
+        this.applications = new ArrayList<>(applications);
+        this.watchService = applications.isEmpty()
+                ? null : applications.get(0).getFileSystem().newWatchService();
+        for (Path application : applications) {
+            if (Files.isDirectory(application)) {
+                registerTree(application);
+            } else if (application.toAbsolutePath().getParent() != null) {
+                register(application.toAbsolutePath().getParent());
+            }
+        }
+    }
+
+    private void registerTree(Path directory) throws IOException {
+        Files.walkFileTree(directory, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+                new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                        register(dir);
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+    }
+
+    private void register(Path directory) throws IOException {
+        if (!watchedDirectories.containsValue(directory)) {
+            watchedDirectories.put(directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE),
+                    directory);
+        }
+    }
+
+    /**
+     * Waits for changes and returns once no further change arrived within the quiet period.
+     *
+     * @return indices of the changed applications, never empty
+     * @throws java.nio.file.ClosedWatchServiceException if the watcher was closed
+     */
+    Set<Integer> awaitChanges(long quietPeriodMillis) throws InterruptedException, IOException {
+        Set<Integer> changed = new TreeSet<>();
+        if (watchService == null) {
+            // nothing to watch, wait until interrupted
+            Thread.sleep(Long.MAX_VALUE);
+        }
+        WatchKey key = watchService.take();
+        while (true) {
+            collect(key, changed);
+            key = watchService.poll(quietPeriodMillis, TimeUnit.MILLISECONDS);
+            if (key == null) {
+                if (!changed.isEmpty()) {
+                    return changed;
+                }
+                key = watchService.take();
+            }
+        }
+    }
+
+    private void collect(WatchKey key, Set<Integer> changed) throws IOException {
+        Path directory = watchedDirectories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (directory == null) {
+                continue;
+            }
+            if (event.kind() == OVERFLOW) {
+                // events were lost, assume everything below the directory changed
+                addChanged(directory, changed);
+                continue;
+            }
+            Path path = directory.resolve((Path) event.context());
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(path) && isInsideExploded(path)) {
+                registerTree(path);
+            }
+            addChanged(path, changed);
+        }
+        if (!key.reset()) {
+            watchedDirectories.remove(key);
+        }
+    }
+
+    private boolean isInsideExploded(Path path) {
+        for (Path application : applications) {
+            if (path.toAbsolutePath().startsWith(application.toAbsolutePath()) && Files.isDirectory(application)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addChanged(Path path, Set<Integer> changed) {
+        Path absolutePath = path.toAbsolutePath();
+        for (int i = 0; i < applications.size(); i++) {
+            Path application = applications.get(i).toAbsolutePath();
+            if (absolutePath.startsWith(application) || application.getParent().equals(absolutePath)) {
+                changed.add(i);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+
+import java.io.File;
+
+/**
+ * This Mojo writes a thread dump, a class histogram and a heap summary of the running forked GlassFish
+ * to a new directory in {@code target/glassfish-diagnostics}.
+ * <p/>
+ * The same diagnostics are captured automatically when a command sent to the forked GlassFish takes
+ * longer than {@code diagnosticsTimeout} seconds.
+ */
+@Mojo(name = "diagnose")
+public class DiagnoseMojo extends AbstractServerMojo {
+
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (!isForkedMode()) {
+            throw new MojoExecutionException("Diagnostics require GlassFish " + serverID
+                    + " started in a forked JVM");
+        }
+        try {
+            File directory = captureDiagnostics();
+            System.out.println("Diagnostics of GlassFish " + serverID + " written to " + directory);
+        } catch (Exception ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+    }
+
+}
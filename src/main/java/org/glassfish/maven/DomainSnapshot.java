@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Snapshot of an embedded GlassFish instance root taken after all configured admin commands succeeded.
+ * <p>
+ * Snapshots are stored under a key which covers the GlassFish version, the bootstrap and GlassFish
+ * properties including the ports, and the admin commands. With {@code dynamicPorts} the ports of the network
+ * listeners are left out of the key, because they are applied at every start anyway, so one snapshot serves
+ * all port assignments. A server booted from a copy of the snapshot
+ * already has the configuration the admin commands would create, so the commands are skipped.
+ * Without a snapshot, the domain configuration is made writable, so that the admin commands are persisted
+ * in the instance root, and the snapshot is taken once all admin commands have run.
+ */
+final class DomainSnapshot {
+
+    // Runtime state of the instance root which does not belong to a snapshot
+    private static final Set<String> EXCLUDED_DIRECTORIES = new HashSet<>(Arrays.asList(
+            "logs", "osgi-cache", "generated", "applications", "session-store"));
+
+    private final File snapshotDirectory;
+    private final File instanceRoot;
+    private final boolean restored;
+    private final List<String> coveredCommands;
+    private final List<String> pendingCommands;
+    private boolean materialized;
+
+    private DomainSnapshot(File snapshotDirectory, File instanceRoot, List<String> commands, boolean restored) {
+        this.snapshotDirectory = snapshotDirectory;
+        this.instanceRoot = instanceRoot;
+        this.restored = restored;
+        this.coveredCommands = new ArrayList<>(commands);
+        this.pendingCommands = new ArrayList<>(restored ? List.of() : commands);
+    }
+
+    /**
+     * @param directory directory holding the snapshots
+     * @param key hash of the configuration the snapshot is valid for
+     * @param commands all admin commands configured for the server
+     * @param instanceRoot instance root the server will use if booting from the snapshot
+     */
+    static DomainSnapshot prepare(File directory, String key, List<String> commands, File instanceRoot) {
+        File snapshotDirectory = new File(directory, key);
+        return new DomainSnapshot(snapshotDirectory, instanceRoot, commands, snapshotDirectory.isDirectory());
+    }
+
+    /**
+     * @return true if the server boots from an existing snapshot
+     */
+    boolean isRestored() {
+        return restored;
+    }
+
+    File getSnapshotDirectory() {
+        return snapshotDirectory;
+    }
+
+    /**
+     * Sets the instance root to a copy of the snapshot, or makes the domain configuration
+     * writable so that the snapshot can be taken later.
+     */
+    void applyTo(Properties glassfishProperties) {
+        if (restored) {
+            glassfishProperties.setProperty(AbstractServerMojo.INSTANCE_ROOT_PROP_NAME, instanceRoot.getAbsolutePath());
+        } else {
+            glassfishProperties.setProperty("org.glassfish.embeddable.configFileReadOnly", "false");
+        }
+    }
+
+    /**
+     * Copies the snapshot to the instance root, replacing its previous content.
+     */
+    synchronized void materialize() throws IOException {
+        if (!restored || materialized) {
+            return;
+        }
+        delete(instanceRoot.toPath());
+        copy(snapshotDirectory.toPath(), instanceRoot.toPath());
+        materialized = true;
+    }
+
+    /**
+     * Removes the commands already applied by the snapshot.
+     *
+     * @return the commands which still have to be executed
+     */
+    synchronized List<String> filterCommands(List<String> commands) {
+        if (!restored) {
+            return commands;
+        }
+        List<String> covered = new ArrayList<>(coveredCommands);
+        List<String> remaining = new ArrayList<>();
+        for (String command : commands) {
+            if (!covered.remove(command)) {
+                remaining.add(command);
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Records successfully executed commands.
+     *
+     * @return true if all commands covered by the snapshot have now succeeded, i.e. the snapshot should be taken
+     */
+    synchronized boolean commandsSucceeded(List<String> commands) {
+        if (restored || pendingCommands.isEmpty()) {
+            return false;
+        }
+        for (String command : commands) {
+            pendingCommands.remove(command);
+        }
+        return pendingCommands.isEmpty();
+    }
+
+    /**
+     * Copies the instance root of a running server into the snapshot directory.
+     * The snapshot becomes visible atomically, a concurrently stored snapshot of the same key wins.
+     */
+    static void store(Path instanceRoot, Path snapshotDirectory) throws IOException {
+        Path tmpDirectory = snapshotDirectory.resolveSibling(snapshotDirectory.getFileName() + ".tmp-"
+                + ProcessHandle.current().pid());
+        delete(tmpDirectory);
+        copy(instanceRoot, tmpDirectory);
+        try {
+            Files.move(tmpDirectory, snapshotDirectory, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            delete(tmpDirectory);
+        } catch (IOException e) {
+            delete(tmpDirectory);
+            if (!Files.isDirectory(snapshotDirectory)) {
+                throw e;
+            }
+        }
+    }
+
+    private static void copy(Path source, Path target) throws IOException {
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!dir.equals(source) && dir.getParent().equals(source)
+                        && EXCLUDED_DIRECTORIES.contains(dir.getFileName().toString())) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                Files.createDirectories(target.resolve(source.relativize(dir)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.copy(file, target.resolve(source.relativize(file)), StandardCopyOption.COPY_ATTRIBUTES);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    static void delete(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path p : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(p);
+            }
+        }
+    }
+}
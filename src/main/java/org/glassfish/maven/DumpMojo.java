@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+
+/**
+ * This Mojo writes the Java Flight Recording of the running forked GlassFish to {@code target/glassfish.jfr}
+ * and summarizes the hot methods, allocation sites, garbage collection pauses and contended locks in
+ * {@code target/glassfish-jfr-summary.txt}.
+ * <p/>
+ * The recording is started with {@code jfr} enabled on the start or run goal, or by the profile goal,
+ * and goes on after the dump.
+ */
+@Mojo(name = "dump")
+public class DumpMojo extends AbstractServerMojo {
+
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (!isForkedMode()) {
+            throw new MojoExecutionException("Flight recordings require GlassFish " + serverID
+                    + " started in a forked JVM");
+        }
+        try {
+            if (dumpFlightRecording() == null) {
+                throw new MojoExecutionException("No flight recording of GlassFish " + serverID
+                        + " is running, enable jfr or run the profile goal first");
+            }
+        } catch (MojoExecutionException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+    }
+
+}
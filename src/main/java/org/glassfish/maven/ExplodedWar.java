@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Exploded web application assembled from the build output without packaging a WAR.
+ * <p>
+ * The layout consists of the webapp sources, the classes directory as {@code WEB-INF/classes} and the
+ * runtime dependencies in {@code WEB-INF/lib}. Files are hard links to their sources, the classes directory
+ * is a symbolic link, so that compiled classes are visible immediately. Where a link cannot be created,
+ * e.g. across file systems or without the privilege to create symbolic links, files are copied.
+ * <p>
+ * Assembling is incremental: entries which still refer to their source are kept, so that the directory
+ * can be reassembled before every deployment and watched for changes.
+ */
+final class ExplodedWar {
+
+    private final Path directory;
+    private final Map<Path, Path> entries = new LinkedHashMap<>();
+    private Path classesDirectory;
+
+    ExplodedWar(File directory) {
+        this.directory = directory.toPath().toAbsolutePath();
+    }
+
+    /**
+     * Adds all files of the webapp source directory, if it exists.
+     */
+    ExplodedWar addWebappDirectory(File webappDirectory) throws IOException {
+        Path root = webappDirectory.toPath();
+        if (Files.isDirectory(root)) {
+            try (Stream<Path> paths = Files.walk(root)) {
+                for (Path file : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                    entries.put(root.relativize(file), file.toAbsolutePath());
+                }
+            }
+        }
+        return this;
+    }
+
+    ExplodedWar setClassesDirectory(File classes) {
+        this.classesDirectory = classes.isDirectory() ? classes.toPath().toAbsolutePath() : null;
+        return this;
+    }
+
+    ExplodedWar addLibraries(List<File> libraries) {
+        for (File library : libraries) {
+            entries.put(Path.of("WEB-INF", "lib", library.getName()), library.toPath().toAbsolutePath());
+        }
+        return this;
+    }
+
+    /**
+     * Creates or updates the exploded directory and removes entries which no longer belong to it.
+     *
+     * @return the exploded directory
+     */
+    File assemble() throws IOException {
+        Files.createDirectories(directory);
+        Path classesLink = directory.resolve(Path.of("WEB-INF", "classes"));
+        Map<Path, Path> files = new LinkedHashMap<>(entries);
+        if (classesDirectory != null && !linkDirectory(classesLink, classesDirectory)) {
+            // no symbolic links on this file system, link the single classes instead
+            try (Stream<Path> paths = Files.walk(classesDirectory)) {
+                for (Path file : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                    files.put(Path.of("WEB-INF", "classes").resolve(classesDirectory.relativize(file)), file);
+                }
+            }
+        }
+        removeStale(files, classesDirectory != null && Files.isSymbolicLink(classesLink) ? classesLink : null);
+        for (Map.Entry<Path, Path> entry : files.entrySet()) {
+            linkFile(directory.resolve(entry.getKey()), entry.getValue());
+        }
+        return directory.toFile();
+    }
+
+    private void removeStale(Map<Path, Path> files, Path classesLink) throws IOException {
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            // children before their parent, so that a directory emptied here is removed as well
+            paths = walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+        }
+        for (Path path : paths) {
+            if (path.equals(directory) || path.equals(classesLink)) {
+                continue;
+            }
+            if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                if (isEmpty(path)) {
+                    Files.delete(path);
+                }
+            } else if (!files.containsKey(directory.relativize(path))) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static boolean isEmpty(Path dir) throws IOException {
+        try (Stream<Path> children = Files.list(dir)) {
+            return children.findAny().isEmpty();
+        }
+    }
+
+    private static boolean linkDirectory(Path link, Path target) throws IOException {
+        if (Files.isSymbolicLink(link) && Files.readSymbolicLink(link).equals(target)) {
+            return true;
+        }
+        if (Files.isSymbolicLink(link)) {
+            Files.delete(link);
+        } else if (Files.isDirectory(link)) {
+            DomainSnapshot.delete(link);
+        }
+        Files.createDirectories(link.getParent());
+        try {
+            Files.createSymbolicLink(link, target);
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    private static void linkFile(Path link, Path source) throws IOException {
+        if (Files.exists(link, LinkOption.NOFOLLOW_LINKS)) {
+            if (Files.exists(link) && Files.isSameFile(link, source)) {
+                // hard link, or a symbolic link to the source
+                return;
+            }
+            if (!Files.isSymbolicLink(link) && Files.size(link) == Files.size(source)
+                    && Files.getLastModifiedTime(link).equals(Files.getLastModifiedTime(source))) {
+                // up to date copy
+                return;
+            }
+            Files.delete(link);
+        }
+        Files.createDirectories(link.getParent());
+        try {
+            Files.createLink(link, source);
+        } catch (IOException | UnsupportedOperationException e) {
+            try {
+                Files.createSymbolicLink(link, source);
+            } catch (IOException | UnsupportedOperationException e2) {
+                Files.copy(source, link, StandardCopyOption.COPY_ATTRIBUTES);
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Log of a GlassFish running in a forked JVM. The merged stdout/stderr of the forked JVM carries only
+ * the log, as requests and responses go through the control connection, see {@link ForkedServer}.
+ * <p>
+ * The output is copied to the log file in chunks as it arrives, without flushing every line. The last lines
+ * are kept in an {@link OutputTail}. Only the records at or above the console level are printed, together with
+ * their header and continuation lines, such as stack traces. The records below the console level are kept
+ * as well, and printed when a goal fails.
+ */
+final class ForkedLog {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // The level of java.util.logging records, as written by the simple, uniform and ODL formatters
+    private static final Pattern LEVEL = Pattern.compile(
+            "(?:^|[\\s\\[|])(SEVERE|WARNING|INFO|CONFIG|FINEST|FINER|FINE)(?=[:\\]|\\s])");
+    private static final int LEVEL_PREFIX_LENGTH = 100;
+
+    private final Process process;
+    private final File file;
+    private final Level consoleLevel;
+    private final OutputTail tail = new OutputTail(OutputTail.DEFAULT_CAPACITY);
+    private final OutputTail hidden = new OutputTail(OutputTail.DEFAULT_CAPACITY);
+    private final CompletableFuture<Void> end = new CompletableFuture<>();
+
+    // Only used by the pump thread
+    private Level recordLevel = Level.INFO;
+    private String heldLine;
+
+    private ForkedLog(Process process, File file, Level consoleLevel) {
+        this.process = process;
+        this.file = file;
+        this.consoleLevel = consoleLevel;
+    }
+
+    /**
+     * Starts copying the output of the process to the log file.
+     *
+     * @param append if true, the log file is continued, e.g. after a restart, otherwise it is replaced
+     * @param consoleLevel the lowest level of the records printed to the console
+     */
+    static ForkedLog start(Process process, File file, boolean append, Level consoleLevel) throws IOException {
+        Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+        FileChannel target = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+        ForkedLog log = new ForkedLog(process, file, consoleLevel);
+        Thread pumpThread = new Thread(() -> log.pump(process.getInputStream(), target), "glassfish-log-pump");
+        pumpThread.setDaemon(true);
+        pumpThread.start();
+        return log;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    /**
+     * @return the last lines of the output, regardless of the console level
+     */
+    OutputTail getTail() {
+        return tail;
+    }
+
+    private void pump(InputStream in, FileChannel target) {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        ByteArrayOutputStream partialLine = new ByteArrayOutputStream();
+        StringBuilder console = new StringBuilder();
+        try (ReadableByteChannel source = Channels.newChannel(in); FileChannel out = target) {
+            while (source.read(buffer) >= 0) {
+                int length = buffer.position();
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                int lineStart = 0;
+                for (int i = 0; i < length; i++) {
+                    if (buffer.get(i) == '\n') {
+                        partialLine.write(buffer.array(), lineStart, i - lineStart);
+                        addLine(partialLine.toString(Charset.defaultCharset()), console);
+                        partialLine.reset();
+                        lineStart = i + 1;
+                    }
+                }
+                partialLine.write(buffer.array(), lineStart, length - lineStart);
+                if (partialLine.size() == 0) {
+                    // a record is written at once, so its level line would have been in the same chunk
+                    releaseHeldLine(console);
+                }
+                print(console);
+                buffer.clear();
+            }
+        } catch (IOException e) {
+            // the process ended
+        } finally {
+            if (partialLine.size() > 0) {
+                addLine(partialLine.toString(Charset.defaultCharset()), console);
+            }
+            releaseHeldLine(console);
+            print(console);
+            end.complete(null);
+        }
+    }
+
+    private void addLine(String line, StringBuilder console) {
+        if (line.endsWith("\r")) {
+            line = line.substring(0, line.length() - 1);
+        }
+        tail.add(line);
+        Level level = parseLevel(line);
+        if (level == null) {
+            // continues the current record, unless it is the header of the next one
+            releaseHeldLine(console);
+            heldLine = line;
+            return;
+        }
+        if (heldLine != null && line.startsWith(level.getName())) {
+            // the simple formatter writes the level at the start of the second line of a record
+            route(heldLine, level, console);
+            heldLine = null;
+        }
+        releaseHeldLine(console);
+        recordLevel = level;
+        route(line, level, console);
+    }
+
+    private void releaseHeldLine(StringBuilder console) {
+        if (heldLine != null) {
+            route(heldLine, recordLevel, console);
+            heldLine = null;
+        }
+    }
+
+    private void route(String line, Level level, StringBuilder console) {
+        if (level.intValue() >= consoleLevel.intValue()) {
+            console.append(line).append(System.lineSeparator());
+        } else {
+            hidden.add(line);
+        }
+    }
+
+    private static void print(StringBuilder console) {
+        if (console.length() > 0) {
+            System.out.print(console);
+            System.out.flush();
+            console.setLength(0);
+        }
+    }
+
+    static Level parseLevel(String line) {
+        Matcher matcher = LEVEL.matcher(line.length() > LEVEL_PREFIX_LENGTH
+                ? line.substring(0, LEVEL_PREFIX_LENGTH) : line);
+        return matcher.find() ? Level.parse(matcher.group(1)) : null;
+    }
+
+    /**
+     * Prints the last records which were below the console level, so that a failing goal shows
+     * what happened in the forked GlassFish. Every record is printed at most once.
+     */
+    void printHiddenRecords() {
+        if (!process.isAlive()) {
+            try {
+                // the output ends shortly after the process
+                end.get(1, TimeUnit.SECONDS);
+            } catch (Exception ignored) {
+            }
+        }
+        List<String> lines = hidden.removeLines();
+        if (lines.isEmpty()) {
+            return;
+        }
+        StringBuilder message = new StringBuilder("Last log records of the forked GlassFish below level ")
+                .append(consoleLevel).append(", the complete log is in ").append(file).append(':');
+        for (String line : lines) {
+            message.append(System.lineSeparator()).append(line);
+        }
+        System.err.println(message);
+    }
+}
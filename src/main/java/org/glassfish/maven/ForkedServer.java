@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Connection to a GlassFish server running in a forked JVM, see {@link GlassFishForkedRunner}.
+ * <p>
+ * The server is driven through a loopback control connection. A process forked by this build connects back
+ * to this build when it is ready, a daemon, which may have been started by an earlier build, is connected to at
+ * its control port. The output of a forked process carries only its log, see {@link ForkedLog}.
+ * <p>
+ * When the forked JVM exits, all pending requests fail at once. Unless the server was stopped or detached,
+ * the exit is reported to the crash listeners.
+ */
+final class ForkedServer {
+
+    // Time the forked process may take to authenticate and to send READY once connected
+    private static final int HANDSHAKE_TIMEOUT_MILLIS = 10_000;
+    private static final int ACCEPT_POLL_MILLIS = 500;
+
+    private final ProcessHandle process;
+    private final boolean daemon;
+    private final Socket socket;
+    private final BufferedReader reader;
+    private final BufferedWriter writer;
+    private final AtomicLong nextRequestId = new AtomicLong();
+    private final Map<Long, CompletableFuture<Response>> pendingRequests = new ConcurrentHashMap<>();
+    private final ForkedLog log;
+    private final CompletableFuture<String> exit;
+    private volatile boolean closed;
+    private volatile boolean stopping;
+    private volatile long commandTimeout;
+
+    private ForkedServer(ProcessHandle process, boolean daemon, Socket socket, ForkedLog log,
+            CompletableFuture<String> exit) throws IOException {
+        this.process = process;
+        this.daemon = daemon;
+        this.socket = socket;
+        this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        this.writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        this.log = log;
+        this.exit = exit;
+        exit.thenAccept(reason -> {
+            closed = true;
+            failPendingRequests();
+        });
+    }
+
+    /**
+     * Accepts the control connection of a forked process, which connects back once GlassFish was started,
+     * and authenticates with the token it was given in its configuration.
+     *
+     * @param process the forked process
+     * @param serverSocket the loopback socket the process was told to connect to
+     * @param token the token the process was given
+     * @param log the log of the process
+     */
+    static ForkedServer connect(Process process, ServerSocket serverSocket, String token, ForkedLog log)
+            throws IOException {
+        serverSocket.setSoTimeout(ACCEPT_POLL_MILLIS);
+        Socket socket = null;
+        while (socket == null) {
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketTimeoutException e) {
+                if (!process.isAlive()) {
+                    throw new IOException("Forked GlassFish process ended with exit code " + process.exitValue()
+                            + " before sending READY");
+                }
+            }
+        }
+        ForkedServer server = new ForkedServer(process.toHandle(), false, socket, log,
+                process.onExit().thenApply(exited -> "exit code " + exited.exitValue()));
+        socket.setSoTimeout(HANDSHAKE_TIMEOUT_MILLIS);
+        if (!token.equals(server.reader.readLine())
+                || !GlassFishForkedRunner.RESP_READY.equals(server.reader.readLine())) {
+            socket.close();
+            throw new IOException("Forked GlassFish did not authenticate its control connection");
+        }
+        socket.setSoTimeout(0);
+        server.startPump();
+        return server;
+    }
+
+    /**
+     * Connects to the control port of a running daemon.
+     */
+    static ForkedServer attach(DaemonState state) throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), state.getPort());
+        ProcessHandle process = ProcessHandle.of(state.getPid()).orElse(null);
+        // the output of a daemon goes to its own log file
+        ForkedServer server = new ForkedServer(process, true, socket, null,
+                process != null ? process.onExit().thenApply(exited -> "daemon exit") : new CompletableFuture<>());
+        server.writer.write(state.getToken());
+        server.writer.newLine();
+        server.writer.flush();
+        server.startPump();
+        return server;
+    }
+
+    /**
+     * @return true if the server is a daemon driven through its control port
+     */
+    boolean isDaemon() {
+        return daemon;
+    }
+
+    long getPid() {
+        return process != null ? process.pid() : -1;
+    }
+
+    /**
+     * @param seconds time after which a request fails and is cancelled in the forked GlassFish, 0 for no limit
+     */
+    void setCommandTimeout(long seconds) {
+        this.commandTimeout = seconds;
+    }
+
+    /**
+     * @return the log of the forked JVM, null for a daemon
+     */
+    ForkedLog getLog() {
+        return log;
+    }
+
+    /**
+     * Registers a listener called with the reason when the forked JVM exits without being stopped
+     * or detached by this build.
+     */
+    void onCrash(Consumer<String> listener) {
+        exit.thenAccept(reason -> {
+            if (!stopping) {
+                listener.accept(reason);
+            }
+        });
+    }
+
+    // Reads the responses in background; completes the pending request of every response frame
+    private void startPump() {
+        Thread pumpThread = new Thread(() -> {
+            try {
+                String pumpLine;
+                while ((pumpLine = reader.readLine()) != null) {
+                    if (!pumpLine.startsWith(GlassFishForkedRunner.FRAME_PREFIX)) {
+                        continue;
+                    }
+                    Response response = Response.parse(pumpLine);
+                    CompletableFuture<Response> pendingRequest = pendingRequests.remove(response.getId());
+                    if (pendingRequest != null) {
+                        pendingRequest.complete(response);
+                    }
+                }
+            } catch (Exception ignored) {
+            } finally {
+                try {
+                    // the connection ends shortly before the process, prefer its exit code as the reason
+                    exit.get(1, TimeUnit.SECONDS);
+                } catch (Exception ignored) {
+                }
+                closed = true;
+                failPendingRequests();
+            }
+        }, "glassfish-control-pump");
+        pumpThread.setDaemon(true);
+        pumpThread.start();
+    }
+
+    private void failPendingRequests() {
+        String reason = exit.isDone() ? "exited with " + exit.join() : "closed the connection";
+        for (Long id : pendingRequests.keySet()) {
+            CompletableFuture<Response> pendingRequest = pendingRequests.remove(id);
+            if (pendingRequest != null) {
+                pendingRequest.completeExceptionally(
+                        new IOException("Forked GlassFish " + reason + " before request " + id + " completed"));
+            }
+        }
+    }
+
+    /**
+     * Sends a request without waiting for its response.
+     * Requests sent to the same lane are executed in order, requests in different lanes concurrently.
+     *
+     * @param lane the lane to execute the command in
+     * @param command the command including its arguments, e.g. {@code ADMIN set a.b.c=d}
+     * @return future completed with the response of the forked GlassFish
+     */
+    CompletableFuture<Response> submit(String lane, String command) throws IOException {
+        long id = nextRequestId.incrementAndGet();
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        pendingRequests.put(id, future);
+        try {
+            synchronized (writer) {
+                writer.write(id + " " + lane + " " + command);
+                writer.newLine();
+                writer.flush();
+            }
+        } catch (IOException e) {
+            pendingRequests.remove(id);
+            throw e;
+        }
+        if (closed) {
+            failPendingRequests();
+        }
+        long timeout = commandTimeout;
+        if (timeout > 0 && !command.equals(GlassFishForkedRunner.CMD_STOP)) {
+            CompletableFuture.delayedExecutor(timeout, TimeUnit.SECONDS).execute(() -> {
+                if (pendingRequests.remove(id, future)) {
+                    future.completeExceptionally(new TimeoutException("Forked GlassFish did not complete ["
+                            + abbreviate(command) + "] within " + timeout + " s"));
+                    cancel(id);
+                }
+            });
+        }
+        return future;
+    }
+
+    // Interrupts the request in the forked GlassFish, nobody waits for its response any more
+    private void cancel(long id) {
+        try {
+            synchronized (writer) {
+                writer.write(nextRequestId.incrementAndGet() + " " + GlassFishForkedRunner.LANE_MAIN + " "
+                        + GlassFishForkedRunner.CMD_CANCEL + " " + id);
+                writer.newLine();
+                writer.flush();
+            }
+        } catch (IOException e) {
+            // the forked GlassFish is gone
+        }
+    }
+
+    static String abbreviate(String command) {
+        return command.length() > 100 ? command.substring(0, 97) + "..." : command;
+    }
+
+    /**
+     * Sends a command to the forked GlassFish process and waits for its response.
+     */
+    Response send(String command) throws Exception {
+        try {
+            return submit(GlassFishForkedRunner.LANE_MAIN, command).get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Sends STOP and waits for the forked JVM to exit. STOP waits for the running requests, so a forked JVM
+     * which does not stop within the command timeout is killed.
+     */
+    void stop() throws Exception {
+        stopping = true;
+        if (exit.isDone()) {
+            // crashed, nothing to stop
+            detach();
+            return;
+        }
+        long timeout = commandTimeout;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeout);
+        try {
+            CompletableFuture<Response> response = submit(GlassFishForkedRunner.LANE_MAIN, GlassFishForkedRunner.CMD_STOP);
+            if (timeout > 0) {
+                response.get(timeout, TimeUnit.SECONDS);
+            } else {
+                response.get();
+            }
+            if (process != null) {
+                if (timeout > 0) {
+                    // the JVM may still hang in its shutdown
+                    process.onExit().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } else {
+                    process.onExit().get();
+                }
+            }
+        } catch (TimeoutException e) {
+            if (process != null) {
+                System.err.println("Forked GlassFish did not stop within " + timeout + " s, killing it");
+                process.destroyForcibly();
+                process.onExit().get();
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+        detach();
+    }
+
+    /**
+     * Closes the connection, leaving a daemon running.
+     */
+    void detach() throws IOException {
+        stopping = true;
+        socket.close();
+    }
+
+    /**
+     * Response of the forked GlassFish to a single request.
+     */
+    static final class Response {
+
+        private final long id;
+        private final String status;
+        private final String message;
+
+        private Response(long id, String status, String message) {
+            this.id = id;
+            this.status = status;
+            this.message = message;
+        }
+
+        /**
+         * Parses a response frame, i.e. {@code @@glassfish@@ <id> <status>[ <message>]}.
+         */
+        static Response parse(String frame) {
+            String[] parts = frame.split(" ", 4);
+            String message = parts.length > 3 ? GlassFishForkedRunner.unescape(parts[3]) : null;
+            return new Response(Long.parseLong(parts[1]), parts[2], message);
+        }
+
+        long getId() {
+            return id;
+        }
+
+        String getStatus() {
+            return status;
+        }
+
+        String getMessage() {
+            return message;
+        }
+
+        boolean isError() {
+            return status.startsWith(GlassFishForkedRunner.RESP_ERROR);
+        }
+
+        @Override
+        public String toString() {
+            return message != null ? status + " " + message : status;
+        }
+    }
+}
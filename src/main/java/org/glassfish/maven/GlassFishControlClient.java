@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client of the client port of a forked GlassFish, for tools such as IDE plugins and tests which deploy
+ * applications or run admin commands while the build goes on. See the {@code clientPort} parameter.
+ * <p>
+ * Example:
+ * <pre>
+ *   try (GlassFishControlClient client = GlassFishControlClient.connect(new File("target/glassfish-maven.client"))) {
+ *       client.deploy(new File("target/app.war"), "--contextroot=app");
+ *       System.out.println(client.status().get("applications"));
+ *   }
+ * </pre>
+ * Requests are pipelined: {@link #submit(String, String, String)} does not wait for the response, and requests
+ * submitted to different lanes are executed concurrently. Several clients may be connected at once.
+ */
+public final class GlassFishControlClient implements Closeable {
+
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private final AtomicLong nextRequestId = new AtomicLong();
+    private final Map<Long, CompletableFuture<Response>> pendingRequests = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    private GlassFishControlClient(Socket socket) throws IOException {
+        this.socket = socket;
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    /**
+     * Connects to the forked GlassFish which published its client port in the given file,
+     * i.e. {@code target/glassfish-<serverID>.client}.
+     */
+    public static GlassFishControlClient connect(File clientFile) throws IOException {
+        DaemonState state = DaemonState.read(clientFile);
+        if (state == null || !state.isAlive()) {
+            throw new IOException("No forked GlassFish is listening for clients, see " + clientFile);
+        }
+        return connect(state.getPort(), state.getToken());
+    }
+
+    /**
+     * Connects to the client port of a forked GlassFish on this host.
+     *
+     * @param token the token published together with the port
+     */
+    public static GlassFishControlClient connect(int port, String token) throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        socket.setTcpNoDelay(true);
+        GlassFishControlClient client = new GlassFishControlClient(socket);
+        try {
+            client.out.writeInt(BinaryProtocol.MAGIC);
+            client.out.writeByte(BinaryProtocol.VERSION);
+            BinaryProtocol.writeString(client.out, token);
+            client.out.flush();
+            if (!GlassFishForkedRunner.RESP_READY.equals(BinaryProtocol.readString(client.in))) {
+                throw new IOException("Unexpected handshake of the forked GlassFish");
+            }
+        } catch (IOException e) {
+            socket.close();
+            throw new IOException("Forked GlassFish refused the connection, check the token", e);
+        }
+        client.startReader();
+        return client;
+    }
+
+    // Completes the pending request of every response
+    private void startReader() {
+        Thread readerThread = new Thread(() -> {
+            try {
+                while (true) {
+                    long id = in.readLong();
+                    Response response = new Response(BinaryProtocol.readString(in), BinaryProtocol.readString(in));
+                    CompletableFuture<Response> pendingRequest = pendingRequests.remove(id);
+                    if (pendingRequest != null) {
+                        pendingRequest.complete(response);
+                    }
+                }
+            } catch (IOException e) {
+                // closed by either side
+            } finally {
+                closed = true;
+                failPendingRequests();
+            }
+        }, "glassfish-control-client");
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    private void failPendingRequests() {
+        for (Long id : pendingRequests.keySet()) {
+            CompletableFuture<Response> pendingRequest = pendingRequests.remove(id);
+            if (pendingRequest != null) {
+                pendingRequest.completeExceptionally(new IOException(
+                        "Connection to the forked GlassFish closed before request " + id + " completed"));
+            }
+        }
+    }
+
+    /**
+     * Sends a request without waiting for its response.
+     *
+     * @param lane requests of the same lane are executed in order, requests of different lanes concurrently
+     * @param command the command, e.g. {@code ADMIN}, see {@link GlassFishForkedRunner}
+     * @param argument the argument of the command, e.g. the admin command line
+     * @return future completed with the response
+     */
+    public CompletableFuture<Response> submit(String lane, String command, String argument) throws IOException {
+        long id = nextRequestId.incrementAndGet();
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        pendingRequests.put(id, future);
+        try {
+            synchronized (out) {
+                out.writeLong(id);
+                BinaryProtocol.writeString(out, lane);
+                BinaryProtocol.writeString(out, command);
+                BinaryProtocol.writeString(out, argument);
+                out.flush();
+            }
+        } catch (IOException e) {
+            pendingRequests.remove(id);
+            throw e;
+        }
+        if (closed) {
+            failPendingRequests();
+        }
+        return future;
+    }
+
+    /**
+     * Sends a request to the main lane, which the build uses as well, and waits for its response.
+     */
+    public Response send(String command, String argument) throws IOException {
+        try {
+            return submit(GlassFishForkedRunner.LANE_MAIN, command, argument).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the forked GlassFish", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Deploys the archive.
+     *
+     * @param parameters deployment parameters, e.g. {@code --contextroot=app}
+     */
+    public Response deploy(File archive, String... parameters) throws IOException {
+        return send(GlassFishForkedRunner.CMD_DEPLOY, join(archive.getAbsolutePath(), parameters));
+    }
+
+    /**
+     * Undeploys the application.
+     *
+     * @param parameters undeployment parameters, e.g. {@code --cascade=true}
+     */
+    public Response undeploy(String appName, String... parameters) throws IOException {
+        return send(GlassFishForkedRunner.CMD_UNDEPLOY, join(appName, parameters));
+    }
+
+    /**
+     * Runs an admin command, e.g. {@code set-log-levels org.glassfish=FINE}.
+     */
+    public Response admin(String commandLine) throws IOException {
+        return send(GlassFishForkedRunner.CMD_ADMIN, commandLine);
+    }
+
+    /**
+     * @return the status of GlassFish: {@code status}, {@code applications} separated by commas
+     *         and {@code uptime} of its JVM in milliseconds
+     */
+    public Map<String, String> status() throws IOException {
+        Response response = send(GlassFishForkedRunner.CMD_STATUS, null);
+        if (response.isError()) {
+            throw new IOException(response.getMessage());
+        }
+        Map<String, String> status = new LinkedHashMap<>();
+        for (String pair : response.getMessage().split(" ")) {
+            String[] keyValue = pair.split("=", 2);
+            status.put(keyValue[0], keyValue.length > 1 ? keyValue[1] : "");
+        }
+        return status;
+    }
+
+    private static String join(String first, String... rest) {
+        return rest.length == 0 ? first : first + " " + String.join(" ", rest);
+    }
+
+    /**
+     * Closes the connection, GlassFish goes on running.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        socket.close();
+    }
+
+    /**
+     * Response of the forked GlassFish to a single request.
+     */
+    public static final class Response {
+
+        private final String status;
+        private final String message;
+
+        private Response(String status, String message) {
+            this.status = status;
+            this.message = message;
+        }
+
+        /**
+         * @return the status, e.g. {@code OK_DEPLOY} or {@code ERROR_DEPLOY}
+         */
+        public String getStatus() {
+            return status;
+        }
+
+        /**
+         * @return the result or the error message, null if there is none
+         */
+        public String getMessage() {
+            return message;
+        }
+
+        public boolean isError() {
+            return status.startsWith(GlassFishForkedRunner.RESP_ERROR);
+        }
+
+        @Override
+        public String toString() {
+            return message != null ? status + " " + message : status;
+        }
+    }
+}
@@ -15,38 +15,115 @@
  */
 package org.glassfish.maven;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.management.JMException;
+import javax.management.MBeanOperationInfo;
+import javax.management.ObjectName;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
 
 /**
  * Entry point for the forked GlassFish JVM launched by {@link RunMojo} when {@code fork=true}.
  * <p>
  * Reads bootstrap and GlassFish properties from a config file passed as the first argument,
- * starts GlassFish, prints {@code READY} to stdout, then processes commands from stdin until
- * a {@code STOP} command is received.
+ * starts GlassFish, connects to the loopback control port of the build given in the config file,
+ * authenticates with the token given there and sends {@code READY}, then processes commands
+ * from the control connection until a {@code STOP} command is received or the connection ends.
+ * Stdout and stderr carry only the log of GlassFish, see {@link ForkedLog}.
+ * <p>
+ * In daemon mode, commands are instead read from clients connecting to a loopback control port.
+ * The port is published in a {@link DaemonState} file, so that later builds can reuse the daemon.
  * <p>
- * Command protocol (stdin, one command per line):
+ * With a client port, tools such as IDE plugins and tests may drive GlassFish concurrently with the build,
+ * using the {@link BinaryProtocol}. Every client connection is served by a thread of its own, clients may
+ * execute all commands except STOP.
+ * <p>
+ * Command protocol (one request per line):
  * <pre>
- *   ADMIN &lt;command line&gt;
- *   DEPLOY &lt;archive-path&gt; [--param=value ...]
- *   UNDEPLOY &lt;appName&gt; [--param=value ...]
- *   STOP
+ *   &lt;id&gt; &lt;lane&gt; ADMIN &lt;command line&gt;
+ *   &lt;id&gt; &lt;lane&gt; ADMIN_BATCH FAIL_FAST|CONTINUE &lt;url-encoded command line&gt; ...
+ *   &lt;id&gt; &lt;lane&gt; DEPLOY &lt;archive-path&gt; [--param=value ...]
+ *   &lt;id&gt; &lt;lane&gt; UNDEPLOY &lt;appName&gt; [--param=value ...]
+ *   &lt;id&gt; &lt;lane&gt; REDEFINE &lt;url-encoded directory&gt; &lt;url-encoded class name&gt;=&lt;url-encoded class file&gt; ...
+ *   &lt;id&gt; &lt;lane&gt; SNAPSHOT &lt;url-encoded directory&gt;
+ *   &lt;id&gt; &lt;lane&gt; TIMINGS
+ *   &lt;id&gt; &lt;lane&gt; MEMORY
+ *   &lt;id&gt; &lt;lane&gt; STATUS
+ *   &lt;id&gt; &lt;lane&gt; JFR_START &lt;settings&gt;
+ *   &lt;id&gt; &lt;lane&gt; JFR_DUMP &lt;url-encoded file&gt;
+ *   &lt;id&gt; &lt;lane&gt; THREAD_DUMP &lt;url-encoded file&gt;
+ *   &lt;id&gt; &lt;lane&gt; HEAP_HISTOGRAM &lt;url-encoded file&gt;
+ *   &lt;id&gt; &lt;lane&gt; HEAP_SUMMARY &lt;url-encoded file&gt;
+ *   &lt;id&gt; &lt;lane&gt; CANCEL &lt;id of the request to cancel&gt;
+ *   &lt;id&gt; &lt;lane&gt; STOP
  * </pre>
- * Response protocol (stdout):
+ * Response protocol:
  * <pre>
  *   READY
- *   OK [result]
- *   ERROR &lt;message&gt;
+ *   @@glassfish@@ &lt;id&gt; OK_&lt;command&gt; [result]
+ *   @@glassfish@@ &lt;id&gt; ERROR_&lt;command&gt; &lt;message&gt;
  * </pre>
+ * Every response carries the id of its request, so a client may pipeline requests without waiting
+ * for responses. Requests with the same lane are executed one after another in the order they were
+ * received, requests in different lanes are executed concurrently. DEPLOY and UNDEPLOY run on a separate
+ * executor with at most {@code deploy.threads} threads, so that concurrent deployments are bounded.
+ * STOP waits for all running requests. CANCEL interrupts a running request of the same connection, or skips it if
+ * it did not start yet, the cancelled request is not answered.
+ * Line breaks in response messages are escaped, see {@link #escape(String)}.
  */
 public class GlassFishForkedRunner {
 
     static final String CMD_ADMIN = "ADMIN";
+    static final String CMD_ADMIN_BATCH = "ADMIN_BATCH";
     static final String CMD_DEPLOY = "DEPLOY";
     static final String CMD_UNDEPLOY = "UNDEPLOY";
+    static final String CMD_REDEFINE = "REDEFINE";
+    static final String CMD_SNAPSHOT = "SNAPSHOT";
+    static final String CMD_TIMINGS = "TIMINGS";
+    static final String CMD_MEMORY = "MEMORY";
+    static final String CMD_JFR_START = "JFR_START";
+    static final String CMD_JFR_DUMP = "JFR_DUMP";
+    static final String CMD_THREAD_DUMP = "THREAD_DUMP";
+    static final String CMD_HEAP_HISTOGRAM = "HEAP_HISTOGRAM";
+    static final String CMD_HEAP_SUMMARY = "HEAP_SUMMARY";
+    static final String CMD_STATUS = "STATUS";
+    static final String CMD_CANCEL = "CANCEL";
     static final String CMD_STOP = "STOP";
 
     static final String RESP_READY = "READY";
@@ -54,24 +131,88 @@ public class GlassFishForkedRunner {
     static final String RESP_ERROR = "ERROR";
 
     static final String RESP_OK_ADMIN = "OK_ADMIN";
+    static final String RESP_OK_ADMIN_BATCH = "OK_ADMIN_BATCH";
     static final String RESP_OK_DEPLOY = "OK_DEPLOY";
     static final String RESP_OK_UNDEPLOY = "OK_UNDEPLOY";
+    static final String RESP_OK_REDEFINE = "OK_REDEFINE";
+    static final String RESP_OK_SNAPSHOT = "OK_SNAPSHOT";
+    static final String RESP_OK_TIMINGS = "OK_TIMINGS";
+    static final String RESP_OK_MEMORY = "OK_MEMORY";
+    static final String RESP_OK_JFR_START = "OK_JFR_START";
+    static final String RESP_OK_JFR_DUMP = "OK_JFR_DUMP";
+    static final String RESP_OK_DIAGNOSTICS = "OK_DIAGNOSTICS";
+    static final String RESP_OK_STATUS = "OK_STATUS";
     static final String RESP_OK_STOP = "OK_STOP";
+    static final String RESP_OK_CANCEL = "OK_CANCEL";
     static final String RESP_ERROR_ADMIN = "ERROR_ADMIN";
+    static final String RESP_ERROR_ADMIN_BATCH = "ERROR_ADMIN_BATCH";
     static final String RESP_ERROR_DEPLOY = "ERROR_DEPLOY";
     static final String RESP_ERROR_UNDEPLOY = "ERROR_UNDEPLOY";
+    static final String RESP_ERROR_REDEFINE = "ERROR_REDEFINE";
+    static final String RESP_ERROR_SNAPSHOT = "ERROR_SNAPSHOT";
+    static final String RESP_ERROR_JFR_START = "ERROR_JFR_START";
+    static final String RESP_ERROR_JFR_DUMP = "ERROR_JFR_DUMP";
+    static final String RESP_ERROR_DIAGNOSTICS = "ERROR_DIAGNOSTICS";
+    static final String RESP_ERROR_STATUS = "ERROR_STATUS";
     static final String RESP_ERROR_STOP = "ERROR_STOP";
 
+    static final String BATCH_FAIL_FAST = "FAIL_FAST";
+    static final String BATCH_CONTINUE = "CONTINUE";
+
+    static final String FRAME_PREFIX = "@@glassfish@@";
+    static final String LANE_MAIN = "main";
+    static final String LANE_DIAGNOSTICS = "diagnostics";
+
     static final String SECTION_SERVER_ID = "serverID";
     static final String SECTION_BOOTSTRAP = "bootstrap.";
     static final String SECTION_GLASSFISH = "glassfish.prop.";
 
+    static final String SECTION_CONTROL_PORT = "control.port";
+    static final String SECTION_CONTROL_TOKEN = "control.token";
+    static final String SECTION_CLIENT_PORT = "client.port";
+    static final String SECTION_CLIENT_FILE = "client.file";
+    static final String SECTION_DAEMON_STATE_FILE = "daemon.stateFile";
+    static final String SECTION_DAEMON_KEY = "daemon.key";
+    static final String SECTION_DEPLOY_THREADS = "deploy.threads";
+    static final String SECTION_JFR_SETTINGS = "jfr.settings";
+
+    static final String JFR_RECORDING_NAME = "glassfish";
+
+    private static final String DIAGNOSTIC_COMMAND_MBEAN = "com.sun.management:type=DiagnosticCommand";
+
+    private final String serverId;
+    private final Properties bootstrapProps;
+    private final Properties glassfishProps;
+
+    // Key = lane, Value = completion of the last request submitted to the lane
+    private final Map<String, CompletableFuture<Void>> lanes = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "glassfish-forked-command");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService deployExecutor;
+
+    private GlassFishForkedRunner(String serverId, Properties bootstrapProps, Properties glassfishProps,
+            int deployThreads) {
+        this.serverId = serverId;
+        this.bootstrapProps = bootstrapProps;
+        this.glassfishProps = glassfishProps;
+        this.deployExecutor = Executors.newFixedThreadPool(Math.max(1, deployThreads), runnable -> {
+            Thread thread = new Thread(runnable, "glassfish-forked-deploy");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     public static void main(String[] args) throws Exception {
         if (args.length < 1) {
             System.err.println("Usage: GlassFishForkedRunner <config-file>");
             System.exit(1);
         }
 
+        PluginUtil.recordStartupPhase("JVM startup", ManagementFactory.getRuntimeMXBean().getStartTime());
+
         Properties config = new Properties();
         try (FileInputStream fis = new FileInputStream(new File(args[0]))) {
             config.load(fis);
@@ -81,6 +222,11 @@ public class GlassFishForkedRunner {
         Properties bootstrapProps = extractPrefixed(config, SECTION_BOOTSTRAP);
         Properties glassfishProps = extractPrefixed(config, SECTION_GLASSFISH);
 
+        String jfrSettings = config.getProperty(SECTION_JFR_SETTINGS);
+        if (jfrSettings != null) {
+            startFlightRecording(jfrSettings);
+        }
+
         PluginUtil.startGlassFish(serverId, GlassFishForkedRunner.class.getClassLoader(),
                 bootstrapProps, glassfishProps);
 
@@ -92,82 +238,589 @@ public class GlassFishForkedRunner {
             }
         }, "glassfish-shutdown-hook"));
 
-        System.out.println(RESP_READY);
-        System.out.flush();
+        GlassFishForkedRunner runner = new GlassFishForkedRunner(serverId, bootstrapProps, glassfishProps,
+                Integer.parseInt(config.getProperty(SECTION_DEPLOY_THREADS, "1")));
+        String clientPort = config.getProperty(SECTION_CLIENT_PORT);
+        if (clientPort != null) {
+            runner.listenForClients(Integer.parseInt(clientPort), new File(config.getProperty(SECTION_CLIENT_FILE)));
+        }
+        String daemonStateFile = config.getProperty(SECTION_DAEMON_STATE_FILE);
+        if (daemonStateFile != null) {
+            runner.serveDaemon(new File(daemonStateFile), config.getProperty(SECTION_DAEMON_KEY));
+            // Nothing may keep a stopped daemon alive, as no build waits for it any more
+            System.exit(0);
+        }
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(),
+                Integer.parseInt(config.getProperty(SECTION_CONTROL_PORT)))) {
+            // Buffered, every response is flushed once it is complete
+            PrintStream out = new PrintStream(new BufferedOutputStream(socket.getOutputStream()), false,
+                    StandardCharsets.UTF_8.name());
+            out.println(config.getProperty(SECTION_CONTROL_TOKEN));
+            out.println(RESP_READY);
+            out.flush();
+            runner.serve(new TextConnection(
+                    new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)), out),
+                    true);
+        }
+    }
 
-        BufferedReader stdin = new BufferedReader(new InputStreamReader(System.in));
-        String line;
-        while ((line = stdin.readLine()) != null) {
-            line = line.trim();
-            if (line.isEmpty()) {
+    /**
+     * Processes requests read from the given connection until STOP is received or the connection ends.
+     *
+     * @param mayStop false for clients which must not stop GlassFish, as it belongs to the build
+     * @return true if STOP was received
+     */
+    private boolean serve(Connection connection, boolean mayStop) throws IOException {
+        // Key = request id, Value = thread executing the request
+        Map<String, Thread> running = new ConcurrentHashMap<>();
+        // Ids of the queued and running requests, and of those of them which were cancelled
+        Set<String> pending = ConcurrentHashMap.newKeySet();
+        Set<String> cancelled = ConcurrentHashMap.newKeySet();
+        String[] request;
+        while ((request = connection.read()) != null) {
+            String id = request[0];
+            String lane = request[1];
+            String command = request[2];
+            String argument = request[3];
+            if (command.equals(CMD_STOP)) {
+                if (!mayStop) {
+                    connection.respond(id, response(RESP_ERROR_STOP,
+                            "GlassFish is stopped by the build which started it"));
+                    continue;
+                }
+                awaitLanes();
+                connection.respond(id, handleStop());
+                return true;
+            }
+            if (command.equals(CMD_CANCEL)) {
+                // only requests which did not complete yet, so that the ids do not pile up
+                if (pending.contains(argument)) {
+                    cancelled.add(argument);
+                    if (!pending.contains(argument)) {
+                        // completed meanwhile
+                        cancelled.remove(argument);
+                    }
+                }
+                Thread thread = running.get(argument);
+                if (thread != null) {
+                    thread.interrupt();
+                }
+                connection.respond(id, response(RESP_OK_CANCEL, null));
                 continue;
             }
-            if (line.equals(CMD_STOP)) {
-                handleStop(serverId);
-                break;
-            } else if (line.startsWith(CMD_ADMIN + " ")) {
-                handleAdmin(serverId, line.substring(CMD_ADMIN.length() + 1));
-            } else if (line.startsWith(CMD_DEPLOY + " ")) {
-                handleDeploy(serverId, bootstrapProps, glassfishProps,
-                        line.substring(CMD_DEPLOY.length() + 1).trim());
-            } else if (line.startsWith(CMD_UNDEPLOY + " ")) {
-                handleUndeploy(serverId, bootstrapProps, glassfishProps,
-                        line.substring(CMD_UNDEPLOY.length() + 1).trim());
-            } else {
-                respond(RESP_ERROR, "Unknown command: " + line);
+            pending.add(id);
+            submit(lane, command.equals(CMD_DEPLOY) || command.equals(CMD_UNDEPLOY) ? deployExecutor : executor, () -> {
+                if (cancelled.contains(id)) {
+                    pending.remove(id);
+                    cancelled.remove(id);
+                    return;
+                }
+                running.put(id, Thread.currentThread());
+                try {
+                    String response = execute(command, argument);
+                    if (!cancelled.contains(id)) {
+                        connection.respond(id, response);
+                    }
+                } finally {
+                    running.remove(id);
+                    pending.remove(id);
+                    cancelled.remove(id);
+                    // do not leak the interrupt of a cancelled request to the next one
+                    Thread.interrupted();
+                }
+            });
+        }
+        return false;
+    }
+
+    private String execute(String command, String argument) {
+        switch (command) {
+            case CMD_ADMIN:
+                return handleAdmin(argument);
+            case CMD_ADMIN_BATCH:
+                return handleAdminBatch(argument);
+            case CMD_DEPLOY:
+                return handleDeploy(argument);
+            case CMD_UNDEPLOY:
+                return handleUndeploy(argument);
+            case CMD_REDEFINE:
+                return handleRedefine(argument);
+            case CMD_SNAPSHOT:
+                return handleSnapshot(argument);
+            case CMD_TIMINGS:
+                // startup phases not yet reported, see PluginUtil.takeStartupPhases()
+                return response(RESP_OK_TIMINGS, String.join(" ", PluginUtil.takeStartupPhases()));
+            case CMD_MEMORY:
+                return response(RESP_OK_MEMORY, String.join(" ", PluginUtil.getMemoryUsage()));
+            case CMD_STATUS:
+                return handleStatus();
+            case CMD_JFR_START:
+                return handleJfrStart(argument);
+            case CMD_JFR_DUMP:
+                return handleJfrDump(argument);
+            case CMD_THREAD_DUMP:
+            case CMD_HEAP_HISTOGRAM:
+            case CMD_HEAP_SUMMARY:
+                return handleDiagnostics(command, argument);
+            default:
+                return response(RESP_ERROR, "Unknown command: " + command);
+        }
+    }
+
+    private void submit(String lane, ExecutorService laneExecutor, Runnable task) {
+        lanes.compute(lane, (name, last) -> (last == null ? CompletableFuture.<Void>completedFuture(null) : last)
+                .exceptionally(e -> null)
+                .thenRunAsync(task, laneExecutor));
+    }
+
+    private void awaitLanes() {
+        for (CompletableFuture<Void> last : lanes.values()) {
+            last.exceptionally(e -> null).join();
+        }
+    }
+
+    /**
+     * Registers this JVM as a daemon and processes commands from clients connecting to the
+     * loopback control port until one of them sends STOP.
+     */
+    private void serveDaemon(File stateFile, String key) throws IOException {
+        String token = UUID.randomUUID().toString();
+        try (ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            new DaemonState(ProcessHandle.current().pid(), serverSocket.getLocalPort(), key, token).write(stateFile);
+            System.out.println(RESP_READY);
+            System.out.flush();
+            while (true) {
+                Socket socket;
+                try {
+                    socket = serverSocket.accept();
+                } catch (SocketException e) {
+                    // closed after STOP
+                    break;
+                }
+                Thread clientThread = new Thread(() -> serveClient(socket, token, serverSocket),
+                        "glassfish-daemon-client");
+                clientThread.setDaemon(true);
+                clientThread.start();
             }
+        } finally {
+            stateFile.delete();
         }
     }
 
-    private static void handleStop(String serverId) {
+    private void serveClient(Socket socket, String token, ServerSocket serverSocket) {
+        try (Socket s = socket) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+            PrintStream out = new PrintStream(s.getOutputStream(), true, StandardCharsets.UTF_8.name());
+            if (!token.equals(in.readLine()) || !serve(new TextConnection(in, out), true)) {
+                return;
+            }
+            serverSocket.close();
+        } catch (IOException e) {
+            System.err.println("GlassFish daemon client failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Accepts clients of the {@link BinaryProtocol} on the loopback port in background, and publishes the port
+     * and the token in the given file, see {@link GlassFishControlClient}.
+     *
+     * @param port the port, 0 for any free port
+     */
+    private void listenForClients(int port, File clientFile) throws IOException {
+        String token = UUID.randomUUID().toString();
+        ServerSocket serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        new DaemonState(ProcessHandle.current().pid(), serverSocket.getLocalPort(), serverId, token).write(clientFile);
+        clientFile.deleteOnExit();
+        Thread acceptThread = new Thread(() -> {
+            while (true) {
+                Socket socket;
+                try {
+                    socket = serverSocket.accept();
+                } catch (IOException e) {
+                    break;
+                }
+                Thread clientThread = new Thread(() -> serveBinaryClient(socket, token), "glassfish-client");
+                clientThread.setDaemon(true);
+                clientThread.start();
+            }
+        }, "glassfish-client-acceptor");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+        System.out.println("GlassFish " + serverId + " accepts clients on port " + serverSocket.getLocalPort()
+                + ", see " + clientFile);
+    }
+
+    private void serveBinaryClient(Socket socket, String token) {
+        try (Socket s = socket) {
+            s.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+            if (in.readInt() != BinaryProtocol.MAGIC || in.readByte() != BinaryProtocol.VERSION
+                    || !token.equals(BinaryProtocol.readString(in))) {
+                return;
+            }
+            BinaryProtocol.writeString(out, RESP_READY);
+            out.flush();
+            serve(new BinaryConnection(in, out), false);
+        } catch (IOException e) {
+            // the client disconnected
+        }
+    }
+
+    private String handleStop() {
         try {
             PluginUtil.stopGlassFish(serverId);
-            respond(RESP_OK_STOP, null);
+            return response(RESP_OK_STOP, null);
+        } catch (Exception e) {
+            return response(RESP_ERROR_STOP, e.getMessage());
+        }
+    }
+
+    private String handleStatus() {
+        try {
+            return response(RESP_OK_STATUS, String.join(" ", PluginUtil.getStatus(serverId)));
         } catch (Exception e) {
-            respond(RESP_ERROR_STOP, e.getMessage());
+            return response(RESP_ERROR_STATUS, e.getMessage());
         }
     }
 
-    private static void handleAdmin(String serverId, String commandLine) {
+    private String handleAdmin(String commandLine) {
         try {
             PluginUtil.runCommand(serverId, new String[]{commandLine});
-            respond(RESP_OK_ADMIN, null);
+            return response(RESP_OK_ADMIN, null);
+        } catch (Exception e) {
+            return response(RESP_ERROR_ADMIN, e.getMessage());
+        }
+    }
+
+    /**
+     * Runs all commands of the batch and responds with their results encoded by
+     * {@link AdminCommandResult#encode()}, separated by spaces.
+     */
+    private String handleAdminBatch(String rest) {
+        String[] parts = rest.split(" ");
+        boolean failFast = BATCH_FAIL_FAST.equals(parts[0]);
+        String[] commandLines = new String[parts.length - 1];
+        for (int i = 1; i < parts.length; i++) {
+            commandLines[i - 1] = decodeArgument(parts[i]);
+        }
+        String[] results;
+        try {
+            results = PluginUtil.runCommands(serverId, commandLines, failFast);
         } catch (Exception e) {
-            respond(RESP_ERROR_ADMIN, e.getMessage());
+            results = new String[commandLines.length];
+            for (int i = 0; i < commandLines.length; i++) {
+                results[i] = new AdminCommandResult(commandLines[i], AdminCommandResult.FAILURE, 0,
+                        e.getMessage()).encode();
+            }
+        }
+        boolean failed = false;
+        for (String result : results) {
+            failed |= AdminCommandResult.decode(result).isFailure();
         }
+        return response(failed ? RESP_ERROR_ADMIN_BATCH : RESP_OK_ADMIN_BATCH, String.join(" ", results));
     }
 
-    private static void handleDeploy(String serverId, Properties bootstrapProps,
-            Properties glassfishProps, String rest) {
+    private String handleDeploy(String rest) {
         String[] parts = rest.split(" ", 2);
         File archive = new File(parts[0]);
         String[] deployParams = parts.length > 1 ? parts[1].split(" ") : new String[0];
         try {
             PluginUtil.doDeploy(serverId, GlassFishForkedRunner.class.getClassLoader(),
                     bootstrapProps, glassfishProps, archive, deployParams);
-            respond(RESP_OK_DEPLOY, null);
+            return response(RESP_OK_DEPLOY, null);
         } catch (Exception e) {
-            respond(RESP_ERROR_DEPLOY, e.getMessage());
+            return response(RESP_ERROR_DEPLOY, e.getMessage());
         }
     }
 
-    private static void handleUndeploy(String serverId, Properties bootstrapProps,
-            Properties glassfishProps, String rest) {
+    private String handleUndeploy(String rest) {
         String[] parts = rest.split(" ", 2);
         String appName = parts[0];
         String[] undeployParams = parts.length > 1 ? parts[1].split(" ") : new String[0];
         try {
             PluginUtil.doUndeploy(serverId, GlassFishForkedRunner.class.getClassLoader(),
                     bootstrapProps, glassfishProps, appName, undeployParams);
-            respond(RESP_OK_UNDEPLOY, null);
+            return response(RESP_OK_UNDEPLOY, null);
+        } catch (Exception e) {
+            return response(RESP_ERROR_UNDEPLOY, e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the bytecode of loaded classes of the application deployed from the given directory
+     * through the {@link HotSwapAgent}. Responds with an error if the agent is not loaded
+     * or a change is not limited to method bodies.
+     */
+    private String handleRedefine(String rest) {
+        try {
+            String[] entries = rest.split(" ");
+            Path applicationDirectory = Paths.get(decodeArgument(entries[0]))
+                    .toAbsolutePath().normalize();
+            Map<String, byte[]> classes = new HashMap<>();
+            for (int i = 1; i < entries.length; i++) {
+                String[] parts = entries[i].split("=", 2);
+                classes.put(decodeArgument(parts[0]),
+                        Files.readAllBytes(Paths.get(decodeArgument(parts[1]))));
+            }
+            return response(RESP_OK_REDEFINE,
+                    String.valueOf(HotSwapAgent.redefine(applicationDirectory, classes)));
+        } catch (Throwable e) {
+            // UnsupportedOperationException, ClassFormatError, VerifyError, ...
+            return response(RESP_ERROR_REDEFINE, e.toString());
+        }
+    }
+
+    /**
+     * Copies the instance root of this server to the snapshot directory, see {@link DomainSnapshot}.
+     */
+    private String handleSnapshot(String rest) {
+        try {
+            DomainSnapshot.store(Paths.get(PluginUtil.getInstanceRoot(serverId)),
+                    Paths.get(decodeArgument(rest)));
+            return response(RESP_OK_SNAPSHOT, null);
         } catch (Exception e) {
-            respond(RESP_ERROR_UNDEPLOY, e.getMessage());
+            return response(RESP_ERROR_SNAPSHOT, e.getMessage());
         }
     }
 
-    private static void respond(String status, String message) {
-        System.out.println(message != null ? status + " " + message : status);
-        System.out.flush();
+    private String handleJfrStart(String settings) {
+        try {
+            startFlightRecording(settings.isEmpty() ? "profile" : settings);
+            return response(RESP_OK_JFR_START, null);
+        } catch (Exception e) {
+            return response(RESP_ERROR_JFR_START, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the data of the flight recording to the file, the recording goes on.
+     */
+    private String handleJfrDump(String rest) {
+        try {
+            Recording recording = getFlightRecording();
+            if (recording == null) {
+                return response(RESP_ERROR_JFR_DUMP, "No flight recording is running");
+            }
+            Path file = Paths.get(decodeArgument(rest));
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            recording.dump(file);
+            return response(RESP_OK_JFR_DUMP, null);
+        } catch (Exception e) {
+            return response(RESP_ERROR_JFR_DUMP, e.getMessage());
+        }
+    }
+
+    /**
+     * Starts the flight recording of this JVM with the given settings, e.g. {@code default} or {@code profile},
+     * unless it is already running.
+     */
+    private static synchronized void startFlightRecording(String settings) throws IOException, ParseException {
+        if (getFlightRecording() != null) {
+            return;
+        }
+        Recording recording = new Recording(Configuration.getConfiguration(settings));
+        recording.setName(JFR_RECORDING_NAME);
+        recording.setToDisk(true);
+        recording.start();
+    }
+
+    private static Recording getFlightRecording() {
+        for (Recording recording : FlightRecorder.getFlightRecorder().getRecordings()) {
+            if (JFR_RECORDING_NAME.equals(recording.getName()) && recording.getState() == RecordingState.RUNNING) {
+                return recording;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Writes a thread dump, a class histogram or a heap summary of this JVM to the file, taken with the
+     * DiagnosticCommand MBean of the platform like jcmd does.
+     */
+    private String handleDiagnostics(String command, String rest) {
+        try {
+            Path file = Paths.get(decodeArgument(rest)).toAbsolutePath();
+            Files.createDirectories(file.getParent());
+            switch (command) {
+                case CMD_THREAD_DUMP:
+                    if (hasDiagnosticCommand("threadDumpToFile")) {
+                        // JDK 21 and newer, includes virtual threads
+                        diagnosticCommand("threadDumpToFile", "-overwrite", file.toString());
+                    } else {
+                        Files.write(file, diagnosticCommand("threadPrint", "-l").getBytes(StandardCharsets.UTF_8));
+                    }
+                    break;
+                case CMD_HEAP_HISTOGRAM:
+                    Files.write(file, diagnosticCommand("gcClassHistogram").getBytes(StandardCharsets.UTF_8));
+                    break;
+                default:
+                    StringBuilder summary = new StringBuilder(diagnosticCommand("gcHeapInfo"));
+                    summary.append(System.lineSeparator());
+                    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                        summary.append(pool.getType()).append(' ').append(pool.getName()).append(": ")
+                                .append(pool.getUsage()).append(System.lineSeparator());
+                    }
+                    Files.write(file, summary.toString().getBytes(StandardCharsets.UTF_8));
+                    break;
+            }
+            return response(RESP_OK_DIAGNOSTICS, null);
+        } catch (Exception e) {
+            return response(RESP_ERROR_DIAGNOSTICS, e.getMessage());
+        }
+    }
+
+    private static boolean hasDiagnosticCommand(String operation) throws JMException {
+        for (MBeanOperationInfo info : ManagementFactory.getPlatformMBeanServer()
+                .getMBeanInfo(new ObjectName(DIAGNOSTIC_COMMAND_MBEAN)).getOperations()) {
+            if (info.getName().equals(operation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String diagnosticCommand(String operation, String... arguments) throws JMException {
+        return (String) ManagementFactory.getPlatformMBeanServer().invoke(new ObjectName(DIAGNOSTIC_COMMAND_MBEAN),
+                operation, new Object[]{arguments}, new String[]{String[].class.getName()});
+    }
+
+    private static String response(String status, String message) {
+        return message != null ? status + " " + message : status;
+    }
+
+    /**
+     * Requests and responses of a single client.
+     */
+    private interface Connection {
+
+        /**
+         * @return id, lane, command and argument of the next request, or null when the client disconnected
+         */
+        String[] read() throws IOException;
+
+        /**
+         * Sends the response, which may be sent concurrently with other responses.
+         * A client which disconnected meanwhile is ignored.
+         */
+        void respond(String id, String response);
+    }
+
+    /**
+     * The line based protocol of the build, see {@link GlassFishForkedRunner}.
+     */
+    private static final class TextConnection implements Connection {
+
+        private final BufferedReader in;
+        private final PrintStream out;
+
+        private TextConnection(BufferedReader in, PrintStream out) {
+            this.in = in;
+            this.out = out;
+        }
+
+        @Override
+        public String[] read() throws IOException {
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] request = line.split(" ", 4);
+                if (request.length < 3) {
+                    respond("0", response(RESP_ERROR, "Malformed request: " + line));
+                    continue;
+                }
+                return new String[]{request[0], request[1], request[2], request.length > 3 ? request[3].trim() : ""};
+            }
+            return null;
+        }
+
+        @Override
+        public void respond(String id, String response) {
+            synchronized (out) {
+                out.println(FRAME_PREFIX + " " + id + " " + escape(response));
+                out.flush();
+            }
+        }
+    }
+
+    /**
+     * The {@link BinaryProtocol} of the client port.
+     */
+    private static final class BinaryConnection implements Connection {
+
+        private final DataInputStream in;
+        private final DataOutputStream out;
+
+        private BinaryConnection(DataInputStream in, DataOutputStream out) {
+            this.in = in;
+            this.out = out;
+        }
+
+        @Override
+        public String[] read() throws IOException {
+            long id;
+            try {
+                id = in.readLong();
+            } catch (EOFException e) {
+                return null;
+            }
+            String lane = BinaryProtocol.readString(in);
+            String command = BinaryProtocol.readString(in);
+            String argument = BinaryProtocol.readString(in);
+            return new String[]{String.valueOf(id), lane != null ? lane : LANE_MAIN, String.valueOf(command),
+                    argument != null ? argument.trim() : ""};
+        }
+
+        @Override
+        public void respond(String id, String response) {
+            String[] parts = response.split(" ", 2);
+            synchronized (out) {
+                try {
+                    out.writeLong(Long.parseLong(id));
+                    BinaryProtocol.writeString(out, parts[0]);
+                    BinaryProtocol.writeString(out, parts.length > 1 ? parts[1] : null);
+                    out.flush();
+                } catch (IOException e) {
+                    // the client disconnected
+                }
+            }
+        }
+    }
+
+    /**
+     * URL encodes an argument of a protocol command, such as a file path, so that it contains no spaces.
+     */
+    static String encodeArgument(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    static String decodeArgument(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Escapes backslashes and line breaks, so that a message fits on a single protocol line.
+     */
+    static String escape(String message) {
+        return message.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    static String unescape(String message) {
+        StringBuilder sb = new StringBuilder(message.length());
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == '\\' && i + 1 < message.length()) {
+                char next = message.charAt(++i);
+                sb.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
     }
 
     private static Properties extractPrefixed(Properties source, String prefix) {
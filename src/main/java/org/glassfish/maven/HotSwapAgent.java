@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.lang.instrument.ClassDefinition;
+import java.lang.instrument.Instrumentation;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Java agent loaded into the forked GlassFish JVM with {@code -javaagent:<plugin jar>}, which replaces
+ * the bytecode of already loaded application classes, see {@link GlassFishForkedRunner}.
+ * <p>
+ * The JVM only supports changes of method bodies, any change of the class schema, e.g. an added method
+ * or field, is rejected, and the application has to be redeployed instead.
+ */
+public final class HotSwapAgent {
+
+    private static volatile Instrumentation instrumentation;
+
+    private HotSwapAgent() {
+    }
+
+    public static void premain(String args, Instrumentation inst) {
+        instrumentation = inst;
+    }
+
+    static boolean isAvailable() {
+        return instrumentation != null && instrumentation.isRedefineClassesSupported();
+    }
+
+    /**
+     * Redefines the loaded classes with the given names of the application deployed from the given directory.
+     * Only classes of the class loaders of that application are redefined, classes with the same name
+     * in other applications or in the server are left alone. Classes which were not loaded yet
+     * are loaded from the changed class files when they are first used, so they are ignored.
+     *
+     * @param applicationDirectory directory the application was deployed from
+     * @param classes new class file content by class name
+     * @return the number of redefined classes
+     * @throws UnsupportedOperationException if the changes cannot be applied by redefinition
+     */
+    static int redefine(Path applicationDirectory, Map<String, byte[]> classes) throws Exception {
+        if (!isAvailable()) {
+            throw new UnsupportedOperationException("The hot swap agent is not loaded");
+        }
+        // WEB-INF/classes of an exploded application may be a link to the build output
+        List<Path> roots = new ArrayList<>();
+        roots.add(applicationDirectory);
+        Path classesDirectory = applicationDirectory.resolve("WEB-INF").resolve("classes");
+        if (Files.exists(classesDirectory)) {
+            roots.add(classesDirectory.toRealPath());
+        }
+        Class<?>[] loadedClasses = instrumentation.getAllLoadedClasses();
+        Set<ClassLoader> applicationLoaders = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Class<?> loadedClass : loadedClasses) {
+            if (loadedClass.getClassLoader() != null && isLoadedFrom(loadedClass, roots)) {
+                applicationLoaders.add(loadedClass.getClassLoader());
+            }
+        }
+        List<ClassDefinition> definitions = new ArrayList<>();
+        for (Class<?> loadedClass : loadedClasses) {
+            byte[] classFile = classes.get(loadedClass.getName());
+            if (classFile != null && applicationLoaders.contains(loadedClass.getClassLoader())
+                    && instrumentation.isModifiableClass(loadedClass)) {
+                definitions.add(new ClassDefinition(loadedClass, classFile));
+            }
+        }
+        if (!definitions.isEmpty()) {
+            instrumentation.redefineClasses(definitions.toArray(new ClassDefinition[0]));
+        }
+        return definitions.size();
+    }
+
+    private static boolean isLoadedFrom(Class<?> loadedClass, List<Path> roots) {
+        try {
+            CodeSource codeSource = loadedClass.getProtectionDomain().getCodeSource();
+            URL location = codeSource == null ? null : codeSource.getLocation();
+            if (location == null || !"file".equals(location.getProtocol())) {
+                return false;
+            }
+            Path path = Paths.get(location.toURI()).toAbsolutePath().normalize();
+            return roots.stream().anyMatch(path::startsWith);
+        } catch (Exception e) {
+            // no permission or a location which is not a path
+            return false;
+        }
+    }
+}
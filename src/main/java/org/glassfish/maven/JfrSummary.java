@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Summary of a flight recording of the forked GlassFish: the hot methods, the allocation sites,
+ * the garbage collection pauses and the contended locks.
+ * <p>
+ * The summary is written to {@code glassfish-jfr-summary.txt} next to the recording. The recording
+ * itself can be opened in JDK Mission Control for the details.
+ */
+final class JfrSummary {
+
+    static final String RECORDING = "glassfish.jfr";
+    static final String REPORT = "glassfish-jfr-summary.txt";
+
+    private static final int TOP = 20;
+
+    private long executionSamples;
+    private final Map<String, Long> hotMethods = new HashMap<>();
+    private long allocatedBytes;
+    private final Map<String, Long> allocationSites = new HashMap<>();
+    private final Map<String, Pauses> collections = new HashMap<>();
+    private final Map<String, Pauses> contendedLocks = new HashMap<>();
+
+    private JfrSummary() {
+    }
+
+    /**
+     * Reads the recording and writes its summary to the same directory.
+     *
+     * @return the summary file
+     */
+    static File write(File recording) throws IOException {
+        JfrSummary summary = new JfrSummary();
+        try (RecordingFile file = new RecordingFile(recording.toPath())) {
+            while (file.hasMoreEvents()) {
+                summary.add(file.readEvent());
+            }
+        }
+        File report = new File(recording.getParentFile(), REPORT);
+        Files.write(report.toPath(), summary.format(recording).getBytes(StandardCharsets.UTF_8));
+        return report;
+    }
+
+    private void add(RecordedEvent event) {
+        switch (event.getEventType().getName()) {
+            case "jdk.ExecutionSample":
+                executionSamples++;
+                hotMethods.merge(topFrame(event), 1L, Long::sum);
+                break;
+            case "jdk.ObjectAllocationSample":
+                // JDK 16 and newer, replaces the TLAB events in the default settings
+                addAllocation(event, event.getLong("weight"));
+                break;
+            case "jdk.ObjectAllocationInNewTLAB":
+                addAllocation(event, event.getLong("tlabSize"));
+                break;
+            case "jdk.ObjectAllocationOutsideTLAB":
+                addAllocation(event, event.getLong("allocationSize"));
+                break;
+            case "jdk.GarbageCollection":
+                collections.computeIfAbsent(event.getString("name"), name -> new Pauses())
+                        .add(event.getDuration("sumOfPauses"), event.getDuration("longestPause"));
+                break;
+            case "jdk.JavaMonitorEnter":
+                RecordedClass monitorClass = event.getClass("monitorClass");
+                String monitor = (monitorClass != null ? monitorClass.getName() : "unknown") + " in " + topFrame(event);
+                contendedLocks.computeIfAbsent(monitor, name -> new Pauses())
+                        .add(event.getDuration(), event.getDuration());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void addAllocation(RecordedEvent event, long bytes) {
+        RecordedClass objectClass = event.getClass("objectClass");
+        String site = (objectClass != null ? objectClass.getName() : "unknown") + " in " + topFrame(event);
+        allocatedBytes += bytes;
+        allocationSites.merge(site, bytes, Long::sum);
+    }
+
+    private static String topFrame(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        RecordedFrame frame = stackTrace.getFrames().get(0);
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    private String format(File recording) {
+        StringBuilder report = new StringBuilder();
+        report.append("Flight recording of GlassFish ").append(recording.getAbsolutePath()).append("\n\n");
+
+        report.append("Hot methods, ").append(executionSamples).append(" execution samples\n");
+        for (Map.Entry<String, Long> method : top(hotMethods)) {
+            report.append(String.format("  %5.1f %%  %s%n", 100.0 * method.getValue() / executionSamples,
+                    method.getKey()));
+        }
+
+        report.append("\nAllocation sites, ").append(allocatedBytes / (1024 * 1024)).append(" MB sampled\n");
+        for (Map.Entry<String, Long> site : top(allocationSites)) {
+            report.append(String.format("  %5.1f %%  %s%n", 100.0 * site.getValue() / allocatedBytes, site.getKey()));
+        }
+
+        report.append("\nGarbage collections\n");
+        report.append(String.format("  %-40s %8s %12s %12s%n", "Collector", "Count", "Pauses", "Longest"));
+        for (Map.Entry<String, Pauses> collection : collections.entrySet()) {
+            Pauses pauses = collection.getValue();
+            report.append(String.format("  %-40s %8d %9d ms %9d ms%n", collection.getKey(), pauses.count,
+                    pauses.total.toMillis(), pauses.longest.toMillis()));
+        }
+
+        report.append("\nContended locks\n");
+        report.append(String.format("  %-80s %8s %12s%n", "Monitor", "Count", "Blocked"));
+        List<Map.Entry<String, Pauses>> locks = new ArrayList<>(contendedLocks.entrySet());
+        locks.sort((a, b) -> b.getValue().total.compareTo(a.getValue().total));
+        for (Map.Entry<String, Pauses> lock : locks.subList(0, Math.min(TOP, locks.size()))) {
+            report.append(String.format("  %-80s %8d %9d ms%n", lock.getKey(), lock.getValue().count,
+                    lock.getValue().total.toMillis()));
+        }
+        return report.toString();
+    }
+
+    private static List<Map.Entry<String, Long>> top(Map<String, Long> values) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(values.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+        return entries.subList(0, Math.min(TOP, entries.size()));
+    }
+
+    private static final class Pauses {
+
+        private long count;
+        private Duration total = Duration.ZERO;
+        private Duration longest = Duration.ZERO;
+
+        private void add(Duration duration, Duration longestDuration) {
+            count++;
+            total = total.plus(duration);
+            if (longestDuration.compareTo(longest) > 0) {
+                longest = longestDuration;
+            }
+        }
+    }
+}
@@ -0,0 +1,400 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This Mojo drives HTTP load scenarios against the deployed applications and reports the latency
+ * percentiles and the throughput of every scenario, see {@link LoadScenario}.
+ * <p/>
+ * A scenario runs for its duration with a fixed number of threads, each of them sending one request after
+ * another. With a target rate, the requests are scheduled at fixed intervals, and the latency is measured from
+ * the scheduled time, so that a stalled server is not hidden by requests which were sent late.
+ * <p/>
+ * The results are written to {@code glassfish-load.json} and {@code glassfish-load.html}, and the goal fails if a
+ * threshold is exceeded. Thresholds are {@code p50}, {@code p90}, {@code p99}, {@code p99.9} and {@code max}
+ * latency in milliseconds, the maximal {@code errorRate} between 0 and 1, and the minimal {@code throughput}
+ * in requests per second.
+ */
+@Mojo(name = "load", defaultPhase = LifecyclePhase.INTEGRATION_TEST)
+public class LoadMojo extends AbstractServerMojo {
+
+    static final String JSON_REPORT = "glassfish-load.json";
+    static final String HTML_REPORT = "glassfish-load.html";
+
+    private static final long REQUEST_TIMEOUT_MILLIS = 30000;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    /**
+     * The load scenarios, run one after another.
+     */
+    @Parameter
+    protected List<LoadScenario> scenarios;
+
+    /**
+     * Thresholds applied to every scenario, e.g. {@code <p99>250</p99>}. The thresholds of a scenario
+     * override them.
+     */
+    @Parameter
+    protected Map<String, String> thresholds;
+
+    /**
+     * Directory the reports are written to.
+     */
+    @Parameter(property = "glassfish.load.reportDirectory", defaultValue = "${project.build.directory}")
+    protected File reportDirectory;
+
+    /**
+     * Skips the load scenarios. Can also be set via the Maven property {@code glassfish.load.skip}.
+     */
+    @Parameter(property = "glassfish.load.skip", defaultValue = "false")
+    protected boolean skip;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (skip || scenarios == null || scenarios.isEmpty()) {
+            System.out.println("No load scenarios to run");
+            return;
+        }
+        List<ScenarioResult> results = new ArrayList<>();
+        try {
+            URI baseUri = getHttpBaseUri();
+            HttpClient client = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofMillis(REQUEST_TIMEOUT_MILLIS))
+                    .build();
+            for (LoadScenario scenario : scenarios) {
+                ScenarioResult result = run(client, baseUri, scenario);
+                System.out.println(result);
+                results.add(result);
+            }
+            writeJsonReport(results);
+            writeHtmlReport(results);
+            System.out.println("Load reports written to " + new File(reportDirectory, JSON_REPORT)
+                    + " and " + HTML_REPORT);
+        } catch (MojoExecutionException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+
+        List<String> violations = new ArrayList<>();
+        for (ScenarioResult result : results) {
+            violations.addAll(result.violations);
+        }
+        if (!violations.isEmpty()) {
+            throw new MojoFailureException("Load thresholds exceeded: " + String.join("; ", violations));
+        }
+    }
+
+    private ScenarioResult run(HttpClient client, URI baseUri, LoadScenario scenario) throws Exception {
+        if (scenario.getUrl() == null) {
+            throw new MojoExecutionException("Load scenario " + scenario.getName() + " has no url");
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(scenario.getUrl()))
+                .timeout(Duration.ofMillis(REQUEST_TIMEOUT_MILLIS))
+                .method(scenario.getMethod().toUpperCase(Locale.ROOT), scenario.getBody() == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(scenario.getBody()));
+        if (scenario.getHeaders() != null) {
+            scenario.getHeaders().forEach(builder::header);
+        }
+        HttpRequest request = builder.build();
+
+        int concurrency = Math.max(1, scenario.getConcurrency());
+        long startTime = System.nanoTime();
+        long endTime = startTime + TimeUnit.SECONDS.toNanos(scenario.getDuration());
+        long interval = scenario.getRate() > 0 ? TimeUnit.SECONDS.toNanos(1) / scenario.getRate() : 0;
+        AtomicLong schedule = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        List<Future<Worker>> futures = new ArrayList<>(concurrency);
+        try {
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(executor.submit(new Worker(client, request, startTime, endTime, interval, schedule)));
+            }
+            ScenarioResult result = new ScenarioResult(scenario);
+            for (Future<Worker> future : futures) {
+                try {
+                    Worker worker = future.get();
+                    result.latencies.merge(worker.latencies);
+                    result.errors += worker.errors;
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+            result.nanos = System.nanoTime() - startTime;
+            result.checkThresholds(getThresholds(scenario));
+            return result;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Map<String, String> getThresholds(LoadScenario scenario) {
+        Map<String, String> merged = new LinkedHashMap<>();
+        if (thresholds != null) {
+            merged.putAll(thresholds);
+        }
+        if (scenario.getThresholds() != null) {
+            merged.putAll(scenario.getThresholds());
+        }
+        return merged;
+    }
+
+    private void writeJsonReport(List<ScenarioResult> results) throws IOException {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"scenarios\": [");
+        for (int i = 0; i < results.size(); i++) {
+            ScenarioResult result = results.get(i);
+            LoadScenario scenario = result.scenario;
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("    {\n");
+            json.append("      \"name\": \"").append(StartupTimings.escapeJson(scenario.getName())).append("\",\n");
+            json.append("      \"url\": \"").append(StartupTimings.escapeJson(scenario.getUrl())).append("\",\n");
+            json.append("      \"method\": \"").append(StartupTimings.escapeJson(scenario.getMethod())).append("\",\n");
+            json.append("      \"concurrency\": ").append(scenario.getConcurrency()).append(",\n");
+            json.append("      \"durationSeconds\": ").append(scenario.getDuration()).append(",\n");
+            json.append("      \"targetRate\": ").append(scenario.getRate()).append(",\n");
+            json.append("      \"requests\": ").append(result.latencies.getTotalCount()).append(",\n");
+            json.append("      \"errors\": ").append(result.errors).append(",\n");
+            json.append("      \"errorRate\": ").append(format(result.getErrorRate(), 4)).append(",\n");
+            json.append("      \"throughput\": ").append(format(result.getThroughput(), 1)).append(",\n");
+            json.append("      \"latencyMillis\": {");
+            json.append("\"min\": ").append(format(toMillis(result.latencies.getMin()), 3));
+            json.append(", \"mean\": ").append(format(result.latencies.getMean() / 1_000_000.0, 3));
+            for (double percentile : PERCENTILES) {
+                json.append(", \"p").append(formatPercentile(percentile)).append("\": ")
+                        .append(format(toMillis(result.latencies.getValueAtPercentile(percentile)), 3));
+            }
+            json.append(", \"max\": ").append(format(toMillis(result.latencies.getMax()), 3)).append("},\n");
+            json.append("      \"violations\": [");
+            for (int j = 0; j < result.violations.size(); j++) {
+                json.append(j == 0 ? "" : ", ").append('"')
+                        .append(StartupTimings.escapeJson(result.violations.get(j))).append('"');
+            }
+            json.append("]\n    }");
+        }
+        json.append("\n  ]\n}\n");
+        write(JSON_REPORT, json.toString());
+    }
+
+    private void writeHtmlReport(List<ScenarioResult> results) throws IOException {
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"UTF-8\">\n")
+                .append("<title>GlassFish load report</title>\n")
+                .append("<style>body{font-family:sans-serif}table{border-collapse:collapse}")
+                .append("th,td{border:1px solid #ccc;padding:4px 8px;text-align:right}")
+                .append("th:first-child,td:first-child{text-align:left}.failed{color:#b00}</style>\n")
+                .append("</head>\n<body>\n<h1>GlassFish load report</h1>\n<table>\n<tr><th>Scenario</th>")
+                .append("<th>Requests</th><th>Errors</th><th>Throughput [req/s]</th><th>Mean [ms]</th>");
+        for (double percentile : PERCENTILES) {
+            html.append("<th>p").append(formatPercentile(percentile)).append(" [ms]</th>");
+        }
+        html.append("<th>Max [ms]</th></tr>\n");
+        for (ScenarioResult result : results) {
+            html.append(result.violations.isEmpty() ? "<tr>" : "<tr class=\"failed\">")
+                    .append("<td>").append(escapeHtml(result.scenario.getMethod() + " " + result.scenario.getName()))
+                    .append("</td><td>").append(result.latencies.getTotalCount())
+                    .append("</td><td>").append(result.errors)
+                    .append("</td><td>").append(format(result.getThroughput(), 1))
+                    .append("</td><td>").append(format(result.latencies.getMean() / 1_000_000.0, 3));
+            for (double percentile : PERCENTILES) {
+                html.append("</td><td>").append(format(toMillis(result.latencies.getValueAtPercentile(percentile)), 3));
+            }
+            html.append("</td><td>").append(format(toMillis(result.latencies.getMax()), 3)).append("</td></tr>\n");
+        }
+        html.append("</table>\n");
+        for (ScenarioResult result : results) {
+            for (String violation : result.violations) {
+                html.append("<p class=\"failed\">").append(escapeHtml(violation)).append("</p>\n");
+            }
+        }
+        html.append("</body>\n</html>\n");
+        write(HTML_REPORT, html.toString());
+    }
+
+    private void write(String fileName, String content) throws IOException {
+        Files.createDirectories(reportDirectory.toPath());
+        Files.write(new File(reportDirectory, fileName).toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String escapeHtml(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+
+    private static String format(double value, int decimals) {
+        return String.format(Locale.ROOT, "%." + decimals + "f", value);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Sends requests until the end of the scenario and records their latencies into its own histogram.
+     */
+    private static final class Worker implements Callable<Worker> {
+
+        private final HttpClient client;
+        private final HttpRequest request;
+        private final long startTime;
+        private final long endTime;
+        private final long interval;
+        private final AtomicLong schedule;
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private long errors;
+
+        private Worker(HttpClient client, HttpRequest request, long startTime, long endTime, long interval,
+                AtomicLong schedule) {
+            this.client = client;
+            this.request = request;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.interval = interval;
+            this.schedule = schedule;
+        }
+
+        @Override
+        public Worker call() throws Exception {
+            while (true) {
+                long scheduledTime;
+                if (interval > 0) {
+                    scheduledTime = startTime + schedule.getAndIncrement() * interval;
+                    if (scheduledTime >= endTime) {
+                        return this;
+                    }
+                    long delay = scheduledTime - System.nanoTime();
+                    if (delay > 0) {
+                        TimeUnit.NANOSECONDS.sleep(delay);
+                    }
+                } else {
+                    scheduledTime = System.nanoTime();
+                    if (scheduledTime >= endTime) {
+                        return this;
+                    }
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 400) {
+                        errors++;
+                    }
+                } catch (IOException e) {
+                    errors++;
+                }
+                latencies.record(System.nanoTime() - scheduledTime);
+            }
+        }
+    }
+
+    private static final class ScenarioResult {
+
+        private final LoadScenario scenario;
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private final List<String> violations = new ArrayList<>();
+        private long errors;
+        private long nanos;
+
+        private ScenarioResult(LoadScenario scenario) {
+            this.scenario = scenario;
+        }
+
+        double getThroughput() {
+            return nanos == 0 ? 0 : latencies.getTotalCount() * 1_000_000_000.0 / nanos;
+        }
+
+        double getErrorRate() {
+            return latencies.getTotalCount() == 0 ? 0 : (double) errors / latencies.getTotalCount();
+        }
+
+        void checkThresholds(Map<String, String> thresholds) throws MojoExecutionException {
+            for (Map.Entry<String, String> threshold : thresholds.entrySet()) {
+                String name = threshold.getKey();
+                double limit;
+                try {
+                    limit = Double.parseDouble(threshold.getValue().trim());
+                } catch (NumberFormatException e) {
+                    throw new MojoExecutionException("Invalid load threshold " + name + "=" + threshold.getValue());
+                }
+                double actual;
+                boolean exceeded;
+                if ("errorRate".equals(name)) {
+                    actual = getErrorRate();
+                    exceeded = actual > limit;
+                } else if ("throughput".equals(name)) {
+                    actual = getThroughput();
+                    exceeded = actual < limit;
+                } else if ("max".equals(name)) {
+                    actual = toMillis(latencies.getMax());
+                    exceeded = actual > limit;
+                } else if (name.startsWith("p")) {
+                    double percentile;
+                    try {
+                        percentile = Double.parseDouble(name.substring(1));
+                    } catch (NumberFormatException e) {
+                        throw new MojoExecutionException("Unknown load threshold " + name);
+                    }
+                    actual = toMillis(latencies.getValueAtPercentile(percentile));
+                    exceeded = actual > limit;
+                } else {
+                    throw new MojoExecutionException("Unknown load threshold " + name);
+                }
+                if (exceeded) {
+                    violations.add(scenario.getName() + ": " + name + " " + format(actual, 3)
+                            + (name.equals("throughput") ? " below " : " above ") + threshold.getValue().trim());
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s %s: %d requests, %d errors, %.1f req/s,"
+                            + " latency p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms",
+                    scenario.getMethod(), scenario.getName(), latencies.getTotalCount(), errors, getThroughput(),
+                    toMillis(latencies.getValueAtPercentile(50)), toMillis(latencies.getValueAtPercentile(90)),
+                    toMillis(latencies.getValueAtPercentile(99)), toMillis(latencies.getValueAtPercentile(99.9)),
+                    toMillis(latencies.getMax()));
+        }
+    }
+}
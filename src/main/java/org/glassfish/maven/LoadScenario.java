@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.util.Map;
+
+/**
+ * HTTP load scenario of the load goal, configured as {@code <scenario>} element of {@code <scenarios>}:
+ * <pre>
+ * &lt;scenario&gt;
+ *     &lt;name&gt;checkout&lt;/name&gt;
+ *     &lt;url&gt;shop/api/cart&lt;/url&gt;
+ *     &lt;method&gt;POST&lt;/method&gt;
+ *     &lt;body&gt;{"item": 42}&lt;/body&gt;
+ *     &lt;headers&gt;
+ *         &lt;Content-Type&gt;application/json&lt;/Content-Type&gt;
+ *     &lt;/headers&gt;
+ *     &lt;concurrency&gt;16&lt;/concurrency&gt;
+ *     &lt;duration&gt;30&lt;/duration&gt;
+ *     &lt;rate&gt;500&lt;/rate&gt;
+ *     &lt;thresholds&gt;
+ *         &lt;p99&gt;250&lt;/p99&gt;
+ *     &lt;/thresholds&gt;
+ * &lt;/scenario&gt;
+ * </pre>
+ */
+public class LoadScenario {
+
+    private String name;
+    private String url;
+    private String method = "GET";
+    private String body;
+    private Map<String, String> headers;
+    private int concurrency = 8;
+    private int duration = 10;
+    private int rate;
+    private Map<String, String> thresholds;
+
+    /**
+     * @return name of the scenario in the report, the URL by default
+     */
+    public String getName() {
+        return name == null ? url : name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return requested URL, relative URLs are resolved against {@code http://localhost:<http port>/}
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    /**
+     * @return request body, or null to send none
+     */
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public void setHeaders(Map<String, String> headers) {
+        this.headers = headers;
+    }
+
+    /**
+     * @return number of requests in flight at the same time
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @return duration of the scenario in seconds
+     */
+    public int getDuration() {
+        return duration;
+    }
+
+    public void setDuration(int duration) {
+        this.duration = duration;
+    }
+
+    /**
+     * @return target rate in requests per second, 0 sends the next request as soon as a response arrived
+     */
+    public int getRate() {
+        return rate;
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    /**
+     * @return thresholds of this scenario, overriding the thresholds of the goal
+     */
+    public Map<String, String> getThresholds() {
+        return thresholds;
+    }
+
+    public void setThresholds(Map<String, String> thresholds) {
+        this.thresholds = thresholds;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * The last lines written by the forked GlassFish, kept to explain why it crashed or hangs.
+ */
+final class OutputTail {
+
+    static final int DEFAULT_CAPACITY = 100;
+
+    private final int capacity;
+    private final Deque<String> lines;
+
+    OutputTail(int capacity) {
+        this.capacity = capacity;
+        this.lines = new ArrayDeque<>(capacity);
+    }
+
+    synchronized void add(String line) {
+        if (lines.size() == capacity) {
+            lines.removeFirst();
+        }
+        lines.addLast(line);
+    }
+
+    synchronized List<String> getLines() {
+        return new ArrayList<>(lines);
+    }
+
+    /**
+     * @return the lines kept so far, which are then forgotten
+     */
+    synchronized List<String> removeLines() {
+        List<String> removed = new ArrayList<>(lines);
+        lines.clear();
+        return removed;
+    }
+
+    @Override
+    public String toString() {
+        return String.join(System.lineSeparator(), getLines());
+    }
+}
@@ -19,12 +19,20 @@ package org.glassfish.maven;
 import org.glassfish.embeddable.*;
 
 import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
 
 /**
  * @author bhavanishankar@dev.java.net
@@ -37,35 +45,50 @@ public class PluginUtil {
         logger.setLevel(Level.FINE);
     }
 
-    static GlassFishRuntime gfr;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Startup phases of this JVM, encoded as <url-encoded name>,<start time>,<millis>
+    private static final List<String> startupPhases = new CopyOnWriteArrayList<>();
+
+    // Shared by all servers of this JVM, modules of a parallel build start their servers concurrently
+    static volatile GlassFishRuntime gfr;
+    // Number of servers created by the runtime and not yet stopped
+    private static int runtimeUsers;
     // Map with Key=serverId Value=GlassFish
-    private final static Map<String, GlassFish> gfMap =
-            new HashMap<String, GlassFish>();
+    private final static ConcurrentMap<String, GlassFish> gfMap = new ConcurrentHashMap<>();
+    // Map with Key=serverId Value=lock guarding the creation of the GlassFish
+    private final static ConcurrentMap<String, Object> gfLocks = new ConcurrentHashMap<>();
 
     public static GlassFish startGlassFish(String serverId,
                                            ClassLoader bootstrapClassLoader,
                                            Properties bootstrapProperties,
                                            Properties glassfishProperties) throws Exception {
-        GlassFish gf = getGlassFish(serverId, bootstrapClassLoader,
-                bootstrapProperties, glassfishProperties);
-        if (gf.getStatus() != GlassFish.Status.STARTED) {
-            long startTime = System.currentTimeMillis();
-            gf.start();
-            logger.logp(Level.INFO, "PluginUtil", "startGlassFish", "Started GlassFish ServerId = {0}, " +
-                    "GlassFish = {1}, TimeTaken = {2} ms",
-                    new Object[]{serverId, gf, System.currentTimeMillis() - startTime});
+        synchronized (getLock(serverId)) {
+            GlassFish gf = getGlassFish(serverId, bootstrapClassLoader,
+                    bootstrapProperties, glassfishProperties);
+            if (gf.getStatus() != GlassFish.Status.STARTED) {
+                long startTime = System.currentTimeMillis();
+                gf.start();
+                recordStartupPhase("container start", startTime);
+                logger.logp(Level.INFO, "PluginUtil", "startGlassFish", "Started GlassFish ServerId = {0}, " +
+                        "GlassFish = {1}, TimeTaken = {2} ms",
+                        new Object[]{serverId, gf, System.currentTimeMillis() - startTime});
+            }
+            return gf;
         }
-        return gf;
     }
 
     public static void stopGlassFish(String serverId) throws Exception {
-        GlassFish gf = gfMap.remove(serverId);
-        if (gf != null && gf.getStatus().equals(GlassFish.Status.STARTED)) {
-            gf.stop();
-            if (gfr != null) {
-                gfr.shutdown();
+        GlassFish gf;
+        synchronized (getLock(serverId)) {
+            gf = gfMap.remove(serverId);
+            if (gf != null && gf.getStatus().equals(GlassFish.Status.STARTED)) {
+                gf.stop();
             }
         }
+        if (gf != null) {
+            releaseRuntime();
+        }
         logger.logp(Level.INFO, "PluginUtil", "stopGlassFish",
                 "Stopped GlassFish ServerId = {0}, GlassFish = {1}",
                 new Object[]{serverId, gf});
@@ -114,53 +137,202 @@ public class PluginUtil {
             long startTime = System.currentTimeMillis();
             logger.logp(Level.FINE, "PluginUtil", "getGlassFish", "Creating GlassFish ServerId = {0}", serverId);
             BootstrapProperties bootstrapOptions = new BootstrapProperties(bootstrapProperties);
-            gfr = gfr != null ? gfr : GlassFishRuntime.bootstrap(bootstrapOptions, bootstrapClassLoader);
+            GlassFishRuntime runtime = acquireRuntime(bootstrapOptions, bootstrapClassLoader);
 /*
             GlassFishRuntime gfr = GlassFishRuntime.bootstrap(bootstrapOptions,
                     PluginUtil.class.getClassLoader());
 */
             logger.logp(Level.FINE, "PluginUtil", "getGlassFish", "Created GlassFishRuntime " +
                     "ServerId = {0}, GlassFishRuntime = {1}, TimeTaken = {2} ms",
-                    new Object[]{serverId, gfr, System.currentTimeMillis() - startTime});
+                    new Object[]{serverId, runtime, System.currentTimeMillis() - startTime});
             GlassFishProperties gfOptions = new GlassFishProperties(glassfishProperties);
-            gf = gfr.newGlassFish(gfOptions);
+            long creationStartTime = System.currentTimeMillis();
+            try {
+                gf = runtime.newGlassFish(gfOptions);
+            } catch (Exception e) {
+                releaseRuntime();
+                throw e;
+            }
+            recordStartupPhase("domain creation", creationStartTime);
             logger.logp(Level.INFO, "PluginUtil", "getGlassFish", "Created GlassFish ServerId = {0}, " +
                     "BootstrapProperties = {1}, GlassFishRuntime = {2}, GlassFishProperties = {3}, " +
                     "GlassFish = {4}, GlassFish Status = {5}, TimeTaken = {6} ms",
-                    new Object[]{serverId, bootstrapProperties, gfr, glassfishProperties,
+                    new Object[]{serverId, bootstrapProperties, runtime, glassfishProperties,
                             gf, gf.getStatus(), System.currentTimeMillis() - startTime});
             gfMap.put(serverId, gf);
         }
         return gf;
     }
 
+    private static Object getLock(String serverId) {
+        return gfLocks.computeIfAbsent(serverId, id -> new Object());
+    }
+
+    private static synchronized GlassFishRuntime acquireRuntime(BootstrapProperties bootstrapOptions,
+                                                                ClassLoader bootstrapClassLoader) throws Exception {
+        if (gfr == null) {
+            long startTime = System.currentTimeMillis();
+            gfr = GlassFishRuntime.bootstrap(bootstrapOptions, bootstrapClassLoader);
+            recordStartupPhase("runtime bootstrap", startTime);
+        }
+        runtimeUsers++;
+        return gfr;
+    }
+
+    // The runtime is shared, so it is only shut down with the last server
+    private static synchronized void releaseRuntime() throws Exception {
+        if (--runtimeUsers <= 0 && gfr != null) {
+            runtimeUsers = 0;
+            gfr.shutdown();
+            gfr = null;
+        }
+    }
+
+    /**
+     * Records a startup phase which started at {@code startTime} and ends now.
+     */
+    public static void recordStartupPhase(String name, long startTime) {
+        startupPhases.add(GlassFishForkedRunner.encodeArgument(name) + "," + startTime + ","
+                + (System.currentTimeMillis() - startTime));
+    }
+
+    /**
+     * Returns the startup phases recorded in this JVM, encoded as
+     * {@code <url-encoded name>,<start time>,<millis>}, and forgets them.
+     */
+    public static String[] takeStartupPhases() {
+        String[] phases = startupPhases.toArray(new String[0]);
+        startupPhases.removeAll(Arrays.asList(phases));
+        return phases;
+    }
+
+    /**
+     * Returns the memory used by this JVM, encoded as {@code <name>=<bytes>}: the used and committed heap,
+     * and the resident set size where the operating system reports it.
+     */
+    public static String[] getMemoryUsage() {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        List<String> usage = new ArrayList<>();
+        usage.add("heapUsed=" + heap.getUsed());
+        usage.add("heapCommitted=" + heap.getCommitted());
+        long rss = getResidentSetSize();
+        if (rss >= 0) {
+            usage.add("rss=" + rss);
+        }
+        return usage.toArray(new String[0]);
+    }
+
+    /**
+     * @return the status of the GlassFish, the deployed applications separated by commas and the uptime
+     *         of this JVM in milliseconds, as key=value pairs
+     */
+    public static String[] getStatus(String serverId) throws Exception {
+        List<String> status = new ArrayList<>();
+        GlassFish gf = gfMap.get(serverId);
+        status.add("status=" + (gf != null ? gf.getStatus() : GlassFish.Status.STOPPED));
+        if (gf != null && gf.getStatus() == GlassFish.Status.STARTED) {
+            status.add("applications=" + String.join(",", gf.getService(Deployer.class).getDeployedApplications()));
+        }
+        status.add("uptime=" + ManagementFactory.getRuntimeMXBean().getUptime());
+        return status.toArray(new String[0]);
+    }
+
+    /**
+     * Returns the instance root of the given server as reported by the server itself. Only if it cannot be
+     * looked up, the instance root of the last server created in this JVM is returned.
+     */
+    public static String getInstanceRoot(String serverId) throws Exception {
+        GlassFish gf = gfMap.get(serverId);
+        if (gf == null) {
+            throw new IllegalStateException("GlassFish " + serverId + " is not running");
+        }
+        try {
+            // not part of the embeddable API, but loaded with the implementation of the server
+            Class<?> serverEnvironment = Class.forName("org.glassfish.api.admin.ServerEnvironment", false,
+                    gf.getClass().getClassLoader());
+            Object environment = gf.getService(serverEnvironment);
+            return ((File) serverEnvironment.getMethod("getInstanceRoot").invoke(environment)).getAbsolutePath();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.logp(Level.FINE, "PluginUtil", "getInstanceRoot", "ServerEnvironment not available", e);
+            return System.getProperty(AbstractServerMojo.INSTANCE_ROOT_PROP_NAME);
+        }
+    }
+
+    // VmRSS of /proc/self/status, Linux only
+    private static long getResidentSetSize() {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    String[] parts = line.substring("VmRSS:".length()).trim().split("\\s+");
+                    return Long.parseLong(parts[0]) * 1024;
+                }
+            }
+        } catch (Exception e) {
+            // not available on this platform
+        }
+        return -1;
+    }
+
     public static void runCommand(String serverId, String[] commandLines)
             throws Exception {
+        runCommands(serverId, commandLines, false);
+    }
+
+    /**
+     * Runs the admin commands one after another using a single {@link CommandRunner}.
+     *
+     * @param failFast if true, the commands following a failed command are skipped,
+     *                 otherwise all commands are executed
+     * @return the results encoded by {@link AdminCommandResult#encode()}, one per command;
+     *         empty if the server is not running
+     */
+    public static String[] runCommands(String serverId, String[] commandLines, boolean failFast)
+            throws Exception {
         GlassFish gf = gfMap.get(serverId);
-        if (gf != null) {
-            CommandRunner cr = gf.getService(CommandRunner.class);
-            for (String commandLine : commandLines) {
-                String[] split = commandLine.split(" ");
-                String command = split[0].trim();
-                String[] commandParams = null;
-                if (split.length > 1) {
-                    commandParams = new String[split.length - 1];
-                    for (int i = 1; i < split.length; i++) {
-                        commandParams[i - 1] = split[i].trim();
-                    }
-                }
-                try {
-                    CommandResult result = commandParams == null ?
-                            cr.run(command) : cr.run(command, commandParams);
-                    logger.logp(Level.INFO, "PluginUtil", "runCommand",
-                            "Ran command [{0}]. Exit Code [{1}], Output = [{2}]",
-                            new Object[]{commandLine, result.getExitStatus(), result.getOutput()});
-                } catch (Exception ex) {
-                    System.out.println(ex.getMessage());
-                    ex.printStackTrace();
-                }
+        if (gf == null) {
+            return new String[0];
+        }
+        return runCommands(gf.getService(CommandRunner.class), commandLines, failFast);
+    }
+
+    /**
+     * Splits the admin command lines and runs them with the given {@link CommandRunner}.
+     */
+    static String[] runCommands(CommandRunner cr, String[] commandLines, boolean failFast) {
+        String[] results = new String[commandLines.length];
+        boolean failed = false;
+        for (int i = 0; i < commandLines.length; i++) {
+            String commandLine = commandLines[i];
+            if (failed && failFast) {
+                results[i] = new AdminCommandResult(commandLine, AdminCommandResult.SKIPPED, 0, null).encode();
+                continue;
+            }
+            String[] split = WHITESPACE.split(commandLine.trim());
+            String command = split[0];
+            String[] commandParams = Arrays.copyOfRange(split, 1, split.length);
+            long startTime = System.currentTimeMillis();
+            String exitStatus;
+            String output;
+            try {
+                CommandResult result = cr.run(command, commandParams);
+                exitStatus = result.getExitStatus().name();
+                output = result.getOutput();
+                logger.logp(Level.INFO, "PluginUtil", "runCommands",
+                        "Ran command [{0}]. Exit Code [{1}], Output = [{2}], TimeTaken = {3} ms",
+                        new Object[]{commandLine, result.getExitStatus(), output,
+                                System.currentTimeMillis() - startTime});
+            } catch (Exception ex) {
+                exitStatus = AdminCommandResult.FAILURE;
+                output = String.valueOf(ex.getMessage());
+                System.out.println(ex.getMessage());
+                ex.printStackTrace();
             }
+            AdminCommandResult result = new AdminCommandResult(commandLine, exitStatus,
+                    System.currentTimeMillis() - startTime, output);
+            failed |= result.isFailure();
+            results[i] = result.encode();
         }
+        return results;
     }
 
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Allocates free TCP ports for the network listeners of servers which run concurrently on one host.
+ * <p>
+ * A port is taken from the ephemeral range by binding to port 0, and then reserved by locking the file
+ * {@code <port>.lock} in the reservation directory. Builds of all modules and of all Maven JVMs sharing
+ * that directory therefore never hand out the same port twice, while the operating system releases the
+ * lock of a build which crashed. A port is only handed out if it can still be bound after it was reserved,
+ * otherwise the next candidate is tried. Releasing a reservation deletes its file.
+ */
+final class PortAllocator {
+
+    private static final int MAX_ATTEMPTS = 50;
+
+    private final File reservationDirectory;
+
+    PortAllocator(File reservationDirectory) {
+        this.reservationDirectory = reservationDirectory;
+    }
+
+    /**
+     * Reserves a free port, the reservation is held until it is closed or this JVM ends.
+     */
+    Reservation reserve() throws IOException {
+        Files.createDirectories(reservationDirectory.toPath());
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            int port;
+            try (ServerSocket socket = new ServerSocket(0)) {
+                port = socket.getLocalPort();
+            }
+            Reservation reservation = tryReserve(port);
+            if (reservation == null) {
+                continue;
+            }
+            if (isFree(port)) {
+                return reservation;
+            }
+            // bound by a process which does not take part in the reservation, e.g. an unrelated server
+            reservation.close();
+        }
+        throw new IOException("No free port found in " + MAX_ATTEMPTS + " attempts");
+    }
+
+    private Reservation tryReserve(int port) throws IOException {
+        Path file = new File(reservationDirectory, port + ".lock").toPath();
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            FileLock lock = channel.tryLock();
+            if (lock != null && isLinked(file, channel)) {
+                return new Reservation(port, file, channel);
+            }
+        } catch (OverlappingFileLockException e) {
+            // reserved by another server of this JVM
+        }
+        channel.close();
+        return null;
+    }
+
+    /**
+     * A released reservation deletes its file, so a channel opened before may have locked a file which is gone,
+     * while another process already locks a new file of the same name. Writes a token through the channel and
+     * checks that it is read back through the name.
+     *
+     * @return true if the locked channel still belongs to the file of that name
+     */
+    private static boolean isLinked(Path file, FileChannel channel) throws IOException {
+        byte[] token = UUID.randomUUID().toString().getBytes(US_ASCII);
+        channel.truncate(0);
+        channel.write(ByteBuffer.wrap(token), 0);
+        try {
+            return Arrays.equals(token, Files.readAllBytes(file));
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            // locks are mandatory on Windows, where a file cannot be replaced while it is open
+            return true;
+        }
+    }
+
+    /**
+     * @return true if the port can be bound on all addresses as well as on the loopback address
+     */
+    static boolean isFree(int port) {
+        try (ServerSocket any = new ServerSocket()) {
+            any.bind(new InetSocketAddress(port));
+        } catch (IOException e) {
+            return false;
+        }
+        try (ServerSocket loopback = new ServerSocket()) {
+            loopback.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        } catch (IOException e) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * A reserved port. Closing it releases the reservation.
+     */
+    static final class Reservation implements Closeable {
+
+        private final int port;
+        private final Path file;
+        private final FileChannel channel;
+
+        private Reservation(int port, Path file, FileChannel channel) {
+            this.port = port;
+            this.file = file;
+            this.channel = channel;
+        }
+
+        int getPort() {
+            return port;
+        }
+
+        @Override
+        public void close() throws IOException {
+            // deleted while still locked, so that no other process holds a lock on it
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // a left over file is reused by the next reservation of the port
+            }
+            // closing the channel releases its lock
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+
+/**
+ * This Mojo resolves and verifies the GlassFish jar in background while the build goes on, e.g. with the
+ * compilation and the unit tests, and prepares the launch of the forked JVM: its classpath, an argument
+ * file with its options in {@code target/glassfish-<serverID>.args} and, if {@code cds} is enabled,
+ * the CDS archive.
+ * <p/>
+ * The start and run goals of the same build use the prepared launch, and wait for it if it is not complete yet.
+ * If the preparation fails, they resolve GlassFish as usual.
+ */
+@Mojo(name = "prepare", defaultPhase = LifecyclePhase.INITIALIZE)
+public class PrepareMojo extends AbstractServerMojo {
+
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        prepareLaunch();
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipFile;
+
+/**
+ * Launch of the forked GlassFish JVM prepared by the prepare goal ahead of the start goal: the verified
+ * GlassFish jar, the plugin jar, the CDS archive for their classpath and an argument file with the options,
+ * the classpath and the main class of the forked JVM.
+ */
+final class PreparedLaunch {
+
+    // Present in every glassfish-embedded-all jar
+    private static final String RUNTIME_CLASS = "org/glassfish/embeddable/GlassFishRuntime.class";
+
+    private final File glassFishJar;
+    private final File pluginJar;
+    private final CdsArchive cdsArchive;
+    private final File argFile;
+
+    PreparedLaunch(File glassFishJar, File pluginJar, CdsArchive cdsArchive, File argFile) {
+        this.glassFishJar = glassFishJar;
+        this.pluginJar = pluginJar;
+        this.cdsArchive = cdsArchive;
+        this.argFile = argFile;
+    }
+
+    File getGlassFishJar() {
+        return glassFishJar;
+    }
+
+    File getPluginJar() {
+        return pluginJar;
+    }
+
+    /**
+     * @return the CDS archive, or null if the prepare goal ran without CDS
+     */
+    CdsArchive getCdsArchive() {
+        return cdsArchive;
+    }
+
+    File getArgFile() {
+        return argFile;
+    }
+
+    /**
+     * Opens the jar like the class loader of the forked JVM does, which fails for a truncated download,
+     * and computes its digest unless the resolution cache already knows it.
+     */
+    static void verify(File glassFishJar) throws IOException {
+        try (ZipFile zip = new ZipFile(glassFishJar)) {
+            if (zip.getEntry(RUNTIME_CLASS) == null) {
+                throw new IOException(glassFishJar + " does not contain the GlassFish runtime");
+            }
+        }
+        Checksums.sha256(glassFishJar);
+    }
+
+    /**
+     * Writes the arguments to a file the java launcher reads with {@code @file}, one quoted argument per line.
+     */
+    static File writeArgFile(File argFile, List<String> arguments) throws IOException {
+        List<String> lines = new ArrayList<>(arguments.size());
+        for (String argument : arguments) {
+            lines.add('"' + argument.replace("\\", "\\\\").replace("\"", "\\\"") + '"');
+        }
+        Files.createDirectories(argFile.getAbsoluteFile().getParentFile().toPath());
+        Files.write(argFile.toPath(), lines, StandardCharsets.UTF_8);
+        return argFile;
+    }
+}
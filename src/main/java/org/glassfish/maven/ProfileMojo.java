@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+
+/**
+ * This Mojo starts a Java Flight Recording in the running forked GlassFish, with the settings
+ * configured by {@code jfrSettings}.
+ * <p/>
+ * Use it to profile only a part of the build, e.g. the integration tests without the startup.
+ * The stop goal and the dump goal write the recording and its summary to the build directory.
+ */
+@Mojo(name = "profile")
+public class ProfileMojo extends AbstractServerMojo {
+
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (!isForkedMode()) {
+            throw new MojoExecutionException("Profiling requires GlassFish " + serverID
+                    + " started in a forked JVM");
+        }
+        try {
+            if (!startFlightRecording()) {
+                throw new MojoExecutionException("Could not start the flight recording of GlassFish " + serverID);
+            }
+        } catch (MojoExecutionException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Persistent cache of the resolution of the GlassFish runtime, shared by all builds using the same cache directory.
+ * <p>
+ * It maps a version of this plugin to the GlassFish version the plugin was built against, which otherwise
+ * requires building the POM of the plugin from the repository, and a GlassFish version to the resolved
+ * {@code glassfish-embedded-all} jar together with its size, modification time and SHA-256 digest.
+ * A jar is only trusted while it has the recorded size and modification time, which is checked without
+ * reading it. SNAPSHOT versions are not cached, as they may change in the repository.
+ * <p>
+ * Concurrent builds may overwrite each other's updates, which only costs a resolution the next time.
+ */
+final class ResolutionCache {
+
+    static final String FILE_NAME = "resolution.properties";
+
+    private static final String PLUGIN_PREFIX = "plugin.";
+    private static final String GLASSFISH_PREFIX = "glassfish.";
+    private static final String GLASSFISH_VERSION = ".glassfishVersion";
+    private static final String PATH = ".path";
+    private static final String LENGTH = ".length";
+    private static final String LAST_MODIFIED = ".lastModified";
+    private static final String SHA256 = ".sha256";
+
+    private final File file;
+    private final Properties entries = new Properties();
+
+    private ResolutionCache(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Loads the cache from the given directory. An unreadable cache is treated as empty.
+     */
+    static ResolutionCache load(File directory) {
+        ResolutionCache cache = new ResolutionCache(new File(directory, FILE_NAME));
+        if (cache.file.isFile()) {
+            try (FileInputStream fis = new FileInputStream(cache.file)) {
+                cache.entries.load(fis);
+            } catch (IOException | IllegalArgumentException e) {
+                cache.entries.clear();
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * @return the GlassFish version the given version of this plugin was built against, or null if not cached
+     */
+    String getGlassFishVersion(String pluginVersion) {
+        return isSnapshot(pluginVersion) ? null
+                : entries.getProperty(PLUGIN_PREFIX + pluginVersion + GLASSFISH_VERSION);
+    }
+
+    void putGlassFishVersion(String pluginVersion, String glassfishVersion) {
+        if (isSnapshot(pluginVersion) || glassfishVersion.equals(getGlassFishVersion(pluginVersion))) {
+            return;
+        }
+        entries.setProperty(PLUGIN_PREFIX + pluginVersion + GLASSFISH_VERSION, glassfishVersion);
+        store();
+    }
+
+    /**
+     * @return the resolved jar of the given GlassFish version, or null if it is not cached or changed since
+     */
+    File getJar(String glassfishVersion) {
+        if (isSnapshot(glassfishVersion)) {
+            return null;
+        }
+        String prefix = GLASSFISH_PREFIX + glassfishVersion;
+        String path = entries.getProperty(prefix + PATH);
+        String digest = entries.getProperty(prefix + SHA256);
+        if (path == null || digest == null) {
+            return null;
+        }
+        File jar = new File(path);
+        if (!String.valueOf(jar.length()).equals(entries.getProperty(prefix + LENGTH))
+                || !String.valueOf(jar.lastModified()).equals(entries.getProperty(prefix + LAST_MODIFIED))) {
+            return null;
+        }
+        Checksums.remember(jar, digest);
+        return jar;
+    }
+
+    void putJar(String glassfishVersion, File jar) {
+        if (isSnapshot(glassfishVersion) || jar == null || !jar.isFile()) {
+            return;
+        }
+        String prefix = GLASSFISH_PREFIX + glassfishVersion;
+        try {
+            entries.setProperty(prefix + SHA256, Checksums.sha256(jar));
+        } catch (IOException e) {
+            System.err.println("Could not cache the GlassFish jar " + jar + ": " + e.getMessage());
+            return;
+        }
+        entries.setProperty(prefix + PATH, jar.getAbsolutePath());
+        entries.setProperty(prefix + LENGTH, String.valueOf(jar.length()));
+        entries.setProperty(prefix + LAST_MODIFIED, String.valueOf(jar.lastModified()));
+        store();
+    }
+
+    // Atomically replaces the cache file, a failure only costs a resolution the next time
+    private void store() {
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            File tmpFile = new File(file.getPath() + "." + ProcessHandle.current().pid() + ".tmp");
+            try (FileOutputStream fos = new FileOutputStream(tmpFile)) {
+                entries.store(fos, "GlassFish resolution cache");
+            }
+            Files.move(tmpFile.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Could not store the resolution cache " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static boolean isSnapshot(String version) {
+        return version == null || version.endsWith("-SNAPSHOT");
+    }
+}
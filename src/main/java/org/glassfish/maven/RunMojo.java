@@ -16,21 +16,35 @@
  */
 package org.glassfish.maven;
 
-import org.apache.maven.model.Plugin;
-import org.apache.maven.model.PluginExecution;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
-import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.apache.maven.plugins.annotations.ResolutionScope;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.InputStreamReader;
-import java.lang.reflect.Method;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 
 /**
  * This Mojo starts Embedded GlassFish, executes all the 'admin' goals, and executes all 'deploy' goals, and waits for
@@ -39,14 +53,16 @@ import java.util.Properties;
  * <p/>
  * While it is waiting for user's input, the user can access the deployed applications.
  * <p/>
- * Upon user's input, it undeploys all the applications that were defined in all 'deploy' goals, and redeploys all of
- * them.
+ * Upon user's input, it redeploys all the applications that were defined in all 'deploy' goals, except those
+ * whose content and deployment parameters did not change.
  * <p/>
  * If user enters 'X' in their console for this Mojo will stop Embedded GlassFish and will exit.
+ * <p/>
+ * In watch mode, only the applications whose files changed are redeployed, without waiting for user's input.
  *
  * @author bhavanishankar@dev.java.net
  */
-@Mojo(name = "run")
+@Mojo(name = "run", requiresDependencyResolution = ResolutionScope.RUNTIME)
 public class RunMojo extends AbstractDeployMojo {
 
     /**
@@ -54,8 +70,8 @@ public class RunMojo extends AbstractDeployMojo {
      * between in-process and forked execution modes.
      */
     private interface GlassFishCommands {
-        void runAdminCommand(String commandLine) throws Exception;
-        void deploy(String archivePath, String[] params) throws Exception;
+        CompletableFuture<Boolean> deploy(String lane, String archivePath, String[] params) throws Exception;
+        CompletableFuture<Boolean> redefine(String lane, String archivePath, Map<String, String> classFiles);
         void undeploy(String appName) throws Exception;
         void stop() throws Exception;
     }
@@ -70,11 +86,30 @@ public class RunMojo extends AbstractDeployMojo {
 
     /**
      * When true, GlassFish is started in a forked JVM. Communication with the forked process happens
-     * via stdin/stdout. Can also be set via the Maven property {@code glassfish.fork}.
+     * via a loopback control connection. Can also be set via the Maven property {@code glassfish.fork}.
      */
     @Parameter(property = "glassfish.fork", defaultValue = "true")
     private boolean fork;
 
+    /**
+     * When true, the archives or exploded directories of the deployed applications are watched,
+     * and an application is redeployed as soon as its files change, instead of waiting for ENTER.
+     * Works without a console, e.g. in a container, in which case GlassFish runs until Maven is terminated.
+     * Can also be set via the Maven property {@code glassfish.run.watch}.
+     */
+    @Parameter(property = "glassfish.run.watch", defaultValue = "false")
+    private boolean watch;
+
+    /**
+     * Time in milliseconds without further file changes, after which the changed applications are redeployed.
+     * Avoids redeploying several times while a build is still writing the files.
+     */
+    @Parameter(property = "glassfish.run.watch.quietPeriod", defaultValue = "500")
+    private long watchQuietPeriod;
+
+    // Key = archive path, Value = fingerprint of the deployed content
+    private final Map<String, DeploymentFingerprint> fingerprints = new ConcurrentHashMap<>();
+
     public void execute() throws MojoExecutionException, MojoFailureException {
         if (fork) {
             executeForked();
@@ -88,12 +123,15 @@ public class RunMojo extends AbstractDeployMojo {
             startForkedGlassFish();
 
             GlassFishCommands commands = new GlassFishCommands() {
-                public void runAdminCommand(String commandLine) throws Exception {
-                    sendForkedCommand(GlassFishForkedRunner.CMD_ADMIN + " " + commandLine);
-                }
-                public void deploy(String archivePath, String[] params) throws Exception {
+                public CompletableFuture<Boolean> deploy(String lane, String archivePath, String[] params)
+                        throws Exception {
                     String paramStr = params.length > 0 ? " " + String.join(" ", params) : "";
-                    sendForkedCommand(GlassFishForkedRunner.CMD_DEPLOY + " " + archivePath + paramStr);
+                    return submitForkedCommand(lane, GlassFishForkedRunner.CMD_DEPLOY + " " + archivePath + paramStr)
+                            .thenApply(response -> !response.isError());
+                }
+                public CompletableFuture<Boolean> redefine(String lane, String archivePath,
+                        Map<String, String> classFiles) {
+                    return redefineForkedClasses(lane, archivePath, classFiles);
                 }
                 public void undeploy(String appName) throws Exception {
                     sendForkedCommand(GlassFishForkedRunner.CMD_UNDEPLOY + " " + appName);
@@ -117,219 +155,334 @@ public class RunMojo extends AbstractDeployMojo {
     private void runDeployLoop(GlassFishCommands gf) throws Exception {
         for (Properties command : getAdminCommandConfigurations()) {
             List<String> cmds = (List<String>) command.get("commands");
-            if (cmds != null) {
-                for (String cmd : cmds) {
-                    gf.runAdminCommand(cmd);
-                }
+            if (cmds != null && !cmds.isEmpty()) {
+                runAdminCommands(cmds, Boolean.parseBoolean(command.getProperty("failFast")));
             }
         }
 
-        while (true) {
-            List<Properties> deployments = getDeploymentConfigurations();
-
-            for (Properties deployment : deployments) {
-                // if app not defined, the default app will be deployed
-                gf.deploy(getApp(deployment.getProperty("app")), getDeploymentParameters(deployment));
-            }
-
-            if (stop) {
-                break;
-            }
-
-            System.out.println("Hit ENTER to redeploy, X to exit");
-            String input = new BufferedReader(new InputStreamReader(System.in)).readLine();
-
-            if (input.equalsIgnoreCase("X")) {
-                break;
+        List<Properties> deployments = getDeploymentConfigurations();
+        Set<Integer> allDeployments = new TreeSet<>();
+        for (int i = 0; i < deployments.size(); i++) {
+            allDeployments.add(i);
+        }
+        deploy(gf, deployments, allDeployments);
+
+        if (!stop) {
+            if (watch) {
+                watchAndRedeploy(gf, deployments);
+            } else {
+                while (true) {
+                    System.out.println("Hit ENTER to redeploy, X to exit");
+                    String input = new BufferedReader(new InputStreamReader(System.in)).readLine();
+
+                    if (input == null || input.equalsIgnoreCase("X")) {
+                        break;
+                    }
+                    deploy(gf, deployments, allDeployments);
+                }
             }
         }
 
         gf.stop();
     }
 
-    private void executeInProcess() throws MojoExecutionException, MojoFailureException {
-        try {
-            startGlassFish(serverID, getClassLoader(), getBootStrapProperties(),
-                    getGlassFishProperties());
-
-            GlassFishCommands commands = new GlassFishCommands() {
-                public void runAdminCommand(String commandLine) throws Exception {
-                    runCommand(serverID, getClassLoader(), new String[]{commandLine});
-                }
-                public void deploy(String archivePath, String[] params) throws Exception {
-                    doDeploy(serverID, getClassLoader(), getBootStrapProperties(),
-                            getGlassFishProperties(), new File(archivePath), params);
-                }
-                public void undeploy(String appName) throws Exception {
-                    doUndeploy(serverID, getClassLoader(), getBootStrapProperties(),
-                            getGlassFishProperties(), appName, new String[0]);
-                }
-                public void stop() throws Exception {
-                    stopGlassFish(serverID, getClassLoader());
+    /**
+     * Deploys the given applications, skipping those whose content and deployment parameters
+     * did not change since they were deployed last.
+     * <p/>
+     * With {@code deployThreads} greater than 1, every application is deployed in its own lane, i.e. concurrently
+     * with the others, but only after the applications it depends on. Finally the time taken by every deployment
+     * and the total wall time are printed.
+     */
+    private void deploy(GlassFishCommands gf, List<Properties> deployments, Set<Integer> indices) throws Exception {
+        long startTime = System.currentTimeMillis();
+        Map<String, CompletableFuture<Boolean>> deployed = new HashMap<>();
+        Map<String, String> report = Collections.synchronizedMap(new LinkedHashMap<>());
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+
+        for (int index : orderByDependencies(deployments, indices)) {
+            Properties deployment = deployments.get(index);
+            String appName = getDeploymentName(deployment);
+            // if app not defined, the default app will be deployed
+            String archivePath = getApp(deployment.getProperty("app"));
+            String[] params = getDeploymentParameters(deployment);
+
+            long fingerprintStart = System.currentTimeMillis();
+            DeploymentFingerprint fingerprint = DeploymentFingerprint.of(new File(archivePath), params);
+            long fingerprintMillis = System.currentTimeMillis() - fingerprintStart;
+            if (!fingerprint.differsFrom(fingerprints.get(archivePath))) {
+                report.put(appName, formatDeployment("UNCHANGED", fingerprintMillis, appName,
+                        "checked " + fingerprint));
+                deployed.put(appName, CompletableFuture.completedFuture(true));
+                continue;
+            }
+            DeploymentFingerprint previous = fingerprints.remove(archivePath);
+            Map<String, String> redefinableClasses = hotSwap
+                    ? getRedefinableClasses(archivePath, fingerprint.changedFiles(previous)) : null;
+
+            List<CompletableFuture<Boolean>> prerequisites = new ArrayList<>();
+            for (String dependency : getDependencies(deployment)) {
+                CompletableFuture<Boolean> prerequisite = deployed.get(dependency);
+                if (prerequisite != null) {
+                    prerequisites.add(prerequisite);
                 }
-            };
-
-            runDeployLoop(commands);
-        } catch (Exception e) {
-            throw new MojoExecutionException(e.getMessage(), e);
+            }
+            String lane = deployThreads > 1
+                    ? "deploy-" + appName.replaceAll("\\s", "_") : GlassFishForkedRunner.LANE_MAIN;
+            deployed.put(appName, CompletableFuture.allOf(prerequisites.toArray(new CompletableFuture<?>[0]))
+                    .thenCompose(ignored -> {
+                        for (CompletableFuture<Boolean> prerequisite : prerequisites) {
+                            if (!prerequisite.join()) {
+                                report.put(appName, formatDeployment("SKIPPED", 0, appName, "a dependency failed"));
+                                return CompletableFuture.completedFuture(false);
+                            }
+                        }
+                        long deployStart = System.currentTimeMillis();
+                        CompletableFuture<String> result = redefinableClasses == null
+                                ? deployArchive(gf, lane, archivePath, params)
+                                : gf.redefine(lane, archivePath, redefinableClasses)
+                                        .thenCompose(redefined -> redefined
+                                                ? CompletableFuture.completedFuture("REDEFINED")
+                                                : deployArchive(gf, lane, archivePath, params));
+                        return result.handle((status, failure) -> {
+                            long millis = System.currentTimeMillis() - deployStart;
+                            getTimings().record(StartupTimings.DEPLOY, appName, deployStart, millis);
+                            if (failure == null && status != null) {
+                                fingerprints.put(archivePath, fingerprint);
+                                report.put(appName, formatDeployment(status, millis, appName, archivePath));
+                                return true;
+                            }
+                            if (failure != null) {
+                                failures.add(failure instanceof CompletionException ? failure.getCause() : failure);
+                            }
+                            report.put(appName, formatDeployment("FAILED", millis, appName, archivePath));
+                            return false;
+                        });
+                    }));
         }
-    }
-
-    // Retrieve all the "admin" goals defined in the plugin.
-    private List<Properties> getAdminCommandConfigurations() {
-        return getGoalConfigurations("admin", "commands");
-    }
-
-    // Retrieve all the "deploy" goals defined in the plugin.
-    private List<Properties> getDeploymentConfigurations() {
-        return getGoalConfigurations("deploy", "deploymentParams");
-    }
-
-    private List<Properties> getGoalConfigurations(String goalName, String nonLeafNodeName) {
-        List<Properties> result = new ArrayList<>();
-
-        Plugin embeddedPlugin = getPlugin("embedded-glassfish-maven-plugin");
-
-        List<PluginExecution> executions = getGoals(embeddedPlugin, goalName);
+        CompletableFuture.allOf(deployed.values().toArray(new CompletableFuture<?>[0])).join();
 
-        for (PluginExecution pluginExecution : executions) {
-            result.add(getConfigurations(pluginExecution, embeddedPlugin, nonLeafNodeName));
+        System.out.println("Deployed " + deployed.size() + " applications in "
+                + (System.currentTimeMillis() - startTime) + " ms wall time:");
+        for (String line : report.values()) {
+            System.out.println("  " + line);
         }
-
-        /* If no matching goal specified, fall back to plugin-level configuration */
-        if (executions.isEmpty()) {
-            result.add(getConfigurations(null, embeddedPlugin, nonLeafNodeName));
+        writeTimingReport();
+        if (!failures.isEmpty()) {
+            Throwable failure = failures.get(0);
+            throw failure instanceof Exception ? (Exception) failure : new Exception(failure);
         }
-
-        return result;
     }
 
-    /**
-     * From the maven project retrieve the plugin by given name.
-     *
-     * @param name Name of the plugin
-     * @return Plugin by given name defined in the maven project
-     */
-    private Plugin getPlugin(String name) {
-        List plugins = project.getModel().getBuild().getPlugins();
-        for (Object plugin : plugins) {
-            if (((Plugin) plugin).getArtifactId().equals(name)) {
-                return (Plugin) plugin;
-            }
+    private static CompletableFuture<String> deployArchive(GlassFishCommands gf, String lane, String archivePath,
+            String[] params) {
+        try {
+            return gf.deploy(lane, archivePath, params).thenApply(success -> success ? "DEPLOYED" : null);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
         }
-        return null;
     }
 
     /**
-     * Get all the goals by given name in the plugin.
+     * Returns the changed classes of an exploded application, if the class files under {@code WEB-INF/classes}
+     * are the only changes, so that redefining the classes may replace the redeployment.
      *
-     * @param plugin Plugin to which the goal belongs.
-     * @param goalName Name of the goals to be retrieved from the plugin
-     * @return List of goals by given name in the given plugin
+     * @return class file by class name, or null if the application has to be redeployed
      */
-    private List<PluginExecution> getGoals(Plugin plugin, String goalName) {
-        List executions = plugin.getExecutions();
-        List<PluginExecution> goals = new ArrayList<>();
-        for (Object execution : executions) {
-            PluginExecution pe = (PluginExecution) execution;
-            List allGoals = pe.getGoals();
-            for (Object goal : allGoals) {
-                if (((String) goal).equals(goalName)) {
-                    goals.add(pe);
-                }
+    private static Map<String, String> getRedefinableClasses(String archivePath, Set<String> changedFiles) {
+        if (changedFiles == null || changedFiles.isEmpty()) {
+            return null;
+        }
+        String classesPrefix = "WEB-INF/classes/";
+        Map<String, String> classes = new TreeMap<>();
+        for (String changedFile : changedFiles) {
+            File classFile = new File(archivePath, changedFile);
+            if (!changedFile.startsWith(classesPrefix) || !changedFile.endsWith(".class") || !classFile.isFile()) {
+                // resources, libraries, or removed classes
+                return null;
             }
+            String className = changedFile.substring(classesPrefix.length(), changedFile.length() - ".class".length())
+                    .replace('/', '.');
+            classes.put(className, classFile.getAbsolutePath());
         }
-        return goals;
+        return classes;
     }
 
-    private Properties getConfigurations(PluginExecution goal, Plugin plugin,
-            String... nonLeafNodeNames) {
-        Xpp3Dom config = (Xpp3Dom) plugin.getConfiguration();
-
-        Properties configurations = new Properties();
+    private static String formatDeployment(String status, long millis, String appName, String details) {
+        return String.format("%-9s %6d ms  %s (%s)", status, millis, appName, details);
+    }
 
-        // retrieve configuration options at the plugin level.
-        if (config != null) {
-            configurations.putAll(getConfigurations(config));
-            if (nonLeafNodeNames != null) {
-                for (String nonLeafNodeName : nonLeafNodeNames) {
-                    configurations.put(nonLeafNodeName, getConfigurationsAsList(
-                            config.getChild(nonLeafNodeName)));
-                }
-            }
+    private String getDeploymentName(Properties deployment) {
+        String appName = deployment.getProperty("name");
+        if (appName == null) {
+            appName = new File(getApp(deployment.getProperty("app"))).getName().replaceFirst("\\.[^.]*$", "");
         }
+        return appName;
+    }
 
-        // retrieve configuration options at goal level.
-        if (goal != null) {
-            config = (Xpp3Dom) goal.getConfiguration();
-            if (config != null) {
-                configurations.putAll(getConfigurations(config));
-                if (nonLeafNodeNames != null) {
-                    for (String nonLeafNodeName : nonLeafNodeNames) {
-                        List<String> value = (List<String>) configurations.get(nonLeafNodeName);
-                        value.addAll(getConfigurationsAsList(config.getChild(nonLeafNodeName)));
-                        configurations.put(nonLeafNodeName, value);
-                    }
+    private static List<String> getDependencies(Properties deployment) {
+        List<String> dependencies = new ArrayList<>();
+        String dependsOn = deployment.getProperty("dependsOn");
+        if (dependsOn != null) {
+            for (String dependency : dependsOn.split(",")) {
+                if (!dependency.trim().isEmpty()) {
+                    dependencies.add(dependency.trim());
                 }
             }
         }
-
-        return configurations;
+        return dependencies;
     }
 
     /**
-     * Get all the leaf level i.e., string property-values in the given node.
-     *
-     * @param node node from which the property-values to be retrieved.
-     * @return all the leaf level i.e., string property-values of the given node.
+     * Orders the deployments so that every application follows the applications it depends on,
+     * keeping the configured order otherwise.
      */
-    private Properties getConfigurations(Xpp3Dom node) {
-        Properties properties = new Properties();
-        if (node != null) {
-            Xpp3Dom[] configs = node.getChildren();
-            if (configs != null) {
-                for (Xpp3Dom config : configs) {
-                    if (config.getValue() != null) { // The child is at the leaf level, so it has string prop-value.
-                        properties.setProperty(config.getName(), config.getValue());
+    private List<Integer> orderByDependencies(List<Properties> deployments, Set<Integer> indices)
+            throws MojoExecutionException {
+        Map<String, Integer> indexByName = new HashMap<>();
+        for (int index : indices) {
+            indexByName.put(getDeploymentName(deployments.get(index)), index);
+        }
+        List<Integer> ordered = new ArrayList<>();
+        Set<Integer> remaining = new TreeSet<>(indices);
+        while (!remaining.isEmpty()) {
+            Integer next = null;
+            for (int index : remaining) {
+                boolean ready = true;
+                for (String dependency : getDependencies(deployments.get(index))) {
+                    Integer dependencyIndex = indexByName.get(dependency);
+                    if (dependencyIndex != null && remaining.contains(dependencyIndex)) {
+                        ready = false;
+                        break;
                     }
                 }
+                if (ready) {
+                    next = index;
+                    break;
+                }
+            }
+            if (next == null) {
+                List<String> names = new ArrayList<>();
+                for (int index : remaining) {
+                    names.add(getDeploymentName(deployments.get(index)));
+                }
+                throw new MojoExecutionException("Circular dependsOn between the applications " + names);
             }
+            remaining.remove(next);
+            ordered.add(next);
         }
-        return properties;
+        return ordered;
     }
 
     /**
-     * Read the configurations that are like this:
-     * <p/>
-     * <configurations>
-     * <configuration>a=b</configuration>
-     * <configuration>x=y</configuration>
-     * </configurations>
-     *
-     * @param node Base node from where the configurations should be read.
-     * @return List of configurations.
+     * Redeploys the applications whose archive or exploded directory changed, until X is entered.
+     * Without a console, i.e. when stdin is closed, it keeps watching until Maven is terminated.
      */
-    private List<String> getConfigurationsAsList(Xpp3Dom node) {
-        List<String> configurations = new ArrayList<>();
-        if (node != null) {
-            Xpp3Dom[] configs = node.getChildren();
-            if (configs != null) {
-                for (Xpp3Dom config : configs) {
-                    if (config.getValue() != null) { // The child is at the leaf level, so it has string prop-value.
-                        configurations.add(config.getValue());
+    private void watchAndRedeploy(GlassFishCommands gf, List<Properties> deployments) throws Exception {
+        List<Path> applications = new ArrayList<>();
+        for (Properties deployment : deployments) {
+            applications.add(Paths.get(getApp(deployment.getProperty("app"))));
+        }
+        BlockingQueue<Set<Integer>> redeployments = new LinkedBlockingQueue<>();
+        Set<Integer> exit = new TreeSet<>();
+        try (DeploymentWatcher watcher = new DeploymentWatcher(applications)) {
+            Thread watcherThread = new Thread(() -> {
+                try {
+                    while (true) {
+                        redeployments.put(watcher.awaitChanges(watchQuietPeriod));
                     }
+                } catch (InterruptedException | ClosedWatchServiceException e) {
+                    // stopped
+                } catch (Exception e) {
+                    System.err.println("Watching applications failed: " + e);
+                }
+            }, "glassfish-deployment-watcher");
+            watcherThread.setDaemon(true);
+            watcherThread.start();
+
+            Thread inputThread = new Thread(() -> {
+                try {
+                    BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+                    String input;
+                    while ((input = in.readLine()) != null) {
+                        if (input.equalsIgnoreCase("X")) {
+                            redeployments.put(exit);
+                            return;
+                        }
+                    }
+                    // no console, keep watching
+                } catch (Exception e) {
+                    // no console, keep watching
+                }
+            }, "glassfish-console-reader");
+            inputThread.setDaemon(true);
+            inputThread.start();
+
+            System.out.println("Watching " + applications + " for changes, enter X to exit");
+            while (true) {
+                Set<Integer> changed = redeployments.take();
+                if (changed == exit) {
+                    break;
                 }
+                for (int index : changed) {
+                    System.out.println("Change detected in " + applications.get(index) + ", redeploying");
+                }
+                long startTime = System.currentTimeMillis();
+                deploy(gf, deployments, changed);
+                System.out.println("Redeployed " + changed.size() + " application(s) in "
+                        + (System.currentTimeMillis() - startTime) + " ms");
             }
+            watcherThread.interrupt();
         }
-        return configurations;
     }
 
-    public void runCommand(String serverId, ClassLoader cl,
-            String[] commandLines) throws Exception {
-        Class clazz = cl.loadClass(PluginUtil.class.getName());
-        Method m = clazz.getMethod("runCommand", new Class[]{
-            String.class, String[].class});
-        m.invoke(null, new Object[]{serverId, commandLines});
+    private void executeInProcess() throws MojoExecutionException, MojoFailureException {
+        ExecutorService deployExecutor = Executors.newFixedThreadPool(Math.max(1, deployThreads));
+        try {
+            prepareDomainSnapshot();
+            startGlassFish(serverID, getClassLoader(), getBootStrapProperties(),
+                    getGlassFishProperties());
+
+            ClassLoader classLoader = getClassLoader();
+            Properties bootstrapProps = getBootStrapProperties();
+            Properties glassfishProps = getGlassFishProperties();
+            GlassFishCommands commands = new GlassFishCommands() {
+                public CompletableFuture<Boolean> deploy(String lane, String archivePath, String[] params) {
+                    return CompletableFuture.supplyAsync(() -> {
+                        try {
+                            doDeploy(serverID, classLoader, bootstrapProps, glassfishProps,
+                                    new File(archivePath), params);
+                            return true;
+                        } catch (Exception e) {
+                            throw new CompletionException(e);
+                        }
+                    }, deployExecutor);
+                }
+                public CompletableFuture<Boolean> redefine(String lane, String archivePath,
+                        Map<String, String> classFiles) {
+                    // the Maven JVM runs without the hot swap agent
+                    return CompletableFuture.completedFuture(false);
+                }
+                public void undeploy(String appName) throws Exception {
+                    doUndeploy(serverID, getClassLoader(), getBootStrapProperties(),
+                            getGlassFishProperties(), appName, new String[0]);
+                }
+                public void stop() throws Exception {
+                    stopGlassFish(serverID, getClassLoader());
+                }
+            };
+
+            runDeployLoop(commands);
+        } catch (Exception e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        } finally {
+            deployExecutor.shutdown();
+        }
+    }
+
+    // Retrieve all the "deploy" goals defined in the plugin.
+    private List<Properties> getDeploymentConfigurations() {
+        return getGoalConfigurations("deploy", "deploymentParams");
     }
 
 }
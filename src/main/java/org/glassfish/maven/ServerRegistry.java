@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * State of the GlassFish servers driven by this Maven JVM, keyed by server ID.
+ * <p>
+ * The state is shared by all goals of a build, and modules built in parallel ({@code mvn -T})
+ * use the registry concurrently. Every module which configures its own server ID starts, drives
+ * and stops its own server independently of the others.
+ */
+final class ServerRegistry {
+
+    private static final ConcurrentMap<String, Server> servers = new ConcurrentHashMap<>();
+
+    private ServerRegistry() {
+    }
+
+    /**
+     * Returns the state of the given server, creating an empty one if necessary.
+     */
+    static Server get(String serverId) {
+        return servers.computeIfAbsent(serverId, Server::new);
+    }
+
+    /**
+     * Forgets the state of a stopped server and releases its port reservations.
+     */
+    static void remove(String serverId) {
+        Server server = servers.remove(serverId);
+        if (server != null) {
+            server.releasePorts();
+        }
+    }
+
+    /**
+     * State of a single server. Goals driving the same server synchronize on this object
+     * while starting or stopping it.
+     */
+    static final class Server {
+
+        private final String serverId;
+        private volatile CompletableFuture<ForkedServer> forkedServer;
+        private volatile CdsArchive cdsArchive;
+        private volatile CompletableFuture<PreparedLaunch> preparedLaunch;
+        private volatile DomainSnapshot domainSnapshot;
+        private volatile ClassLoader classLoader;
+        private volatile boolean flightRecording;
+        // replayed commands in their order, deployments keyed by application name, admin commands by a sequence
+        private final Map<String, String> replayedCommands = new LinkedHashMap<>();
+        private int replayedAdminCommands;
+        private int restarts;
+        private StartupTimings timings;
+        private Map<String, String> ports;
+        private final List<PortAllocator.Reservation> portReservations = new ArrayList<>();
+
+        private Server(String serverId) {
+            this.serverId = serverId;
+        }
+
+        /**
+         * @return connection to the forked GlassFish, completed once it is ready,
+         *         or null if the server does not run in a forked JVM
+         */
+        CompletableFuture<ForkedServer> getForkedServer() {
+            return forkedServer;
+        }
+
+        void setForkedServer(CompletableFuture<ForkedServer> forkedServer) {
+            this.forkedServer = forkedServer;
+        }
+
+        CdsArchive getCdsArchive() {
+            return cdsArchive;
+        }
+
+        void setCdsArchive(CdsArchive cdsArchive) {
+            this.cdsArchive = cdsArchive;
+        }
+
+        /**
+         * @return the launch prepared in background by the prepare goal, or null if it did not run
+         */
+        CompletableFuture<PreparedLaunch> getPreparedLaunch() {
+            return preparedLaunch;
+        }
+
+        void setPreparedLaunch(CompletableFuture<PreparedLaunch> preparedLaunch) {
+            this.preparedLaunch = preparedLaunch;
+        }
+
+        DomainSnapshot getDomainSnapshot() {
+            return domainSnapshot;
+        }
+
+        void setDomainSnapshot(DomainSnapshot domainSnapshot) {
+            this.domainSnapshot = domainSnapshot;
+        }
+
+        /**
+         * @return class loader of the GlassFish server running in-process, or null
+         */
+        ClassLoader getClassLoader() {
+            return classLoader;
+        }
+
+        void setClassLoader(ClassLoader classLoader) {
+            this.classLoader = classLoader;
+        }
+
+        /**
+         * @return true if the forked GlassFish runs a flight recording which is dumped when it stops
+         */
+        boolean isFlightRecording() {
+            return flightRecording;
+        }
+
+        void setFlightRecording(boolean flightRecording) {
+            this.flightRecording = flightRecording;
+        }
+
+        /**
+         * Records a command which changed the state of the forked GlassFish, to replay it after a restart.
+         * A deployment replaces the earlier deployment of the same application, an undeployment removes it,
+         * admin commands are all kept in their order.
+         */
+        synchronized void addReplayedCommand(String command) {
+            String[] parts = command.split(" ");
+            switch (parts[0]) {
+                case GlassFishForkedRunner.CMD_DEPLOY:
+                    String key = "deploy " + getDeployedName(parts);
+                    replayedCommands.remove(key);
+                    replayedCommands.put(key, command);
+                    break;
+                case GlassFishForkedRunner.CMD_UNDEPLOY:
+                    replayedCommands.remove("deploy " + parts[1]);
+                    break;
+                default:
+                    replayedCommands.put("admin " + replayedAdminCommands++, command);
+            }
+        }
+
+        synchronized List<String> getReplayedCommands() {
+            return new ArrayList<>(replayedCommands.values());
+        }
+
+        /**
+         * @return the --name parameter of a DEPLOY command, or the name GlassFish derives from the archive
+         */
+        private static String getDeployedName(String[] deployCommand) {
+            for (int i = 2; i < deployCommand.length; i++) {
+                if (deployCommand[i].startsWith("--name=")) {
+                    return deployCommand[i].substring("--name=".length());
+                }
+            }
+            return new File(deployCommand[1]).getName().replaceFirst("\\.[^.]*$", "");
+        }
+
+        synchronized int getRestarts() {
+            return restarts;
+        }
+
+        synchronized void addRestart() {
+            restarts++;
+        }
+
+        synchronized StartupTimings getTimings() {
+            if (timings == null) {
+                timings = new StartupTimings(serverId);
+            }
+            return timings;
+        }
+
+        synchronized void resetTimings() {
+            timings = null;
+        }
+
+        /**
+         * @return ports allocated for the network listeners by listener name, or null if not allocated yet
+         */
+        synchronized Map<String, String> getPorts() {
+            return ports;
+        }
+
+        synchronized void setPorts(Map<String, String> ports, List<PortAllocator.Reservation> reservations) {
+            releasePorts();
+            this.ports = ports;
+            portReservations.addAll(reservations);
+        }
+
+        synchronized void releasePorts() {
+            for (PortAllocator.Reservation reservation : portReservations) {
+                try {
+                    reservation.close();
+                } catch (IOException e) {
+                    System.err.println("Could not release port " + reservation.getPort() + ": " + e.getMessage());
+                }
+            }
+            portReservations.clear();
+            ports = null;
+        }
+    }
+}
@@ -34,16 +34,26 @@ public class StartMojo extends AbstractServerMojo {
     /**
      * When true, GlassFish is started in a forked JVM. Subsequent goals (deploy, undeploy,
      * admin, stop) will automatically detect the forked process and communicate with it
-     * via stdin/stdout. Can also be set via the Maven property {@code glassfish.fork}.
+     * via a loopback control connection. Can also be set via the Maven property {@code glassfish.fork}.
      */
     @Parameter(property = "glassfish.fork", defaultValue = "true")
     private boolean fork;
 
+    /**
+     * When true, the start goal returns as soon as the forked JVM was launched, so that GlassFish boots
+     * while the build goes on. The deploy, undeploy and admin goals wait until GlassFish is ready, or use
+     * the await goal to wait for it explicitly. Ignored unless {@code fork} is enabled.
+     * Can also be set via the Maven property {@code glassfish.start.async}.
+     */
+    @Parameter(property = "glassfish.start.async", defaultValue = "false")
+    private boolean async;
+
     public void execute() throws MojoExecutionException, MojoFailureException {
         try {
             if (fork) {
-                startForkedGlassFish();
+                startForkedGlassFish(!async);
             } else {
+                prepareDomainSnapshot();
                 startGlassFish(serverID, getClassLoader(), getBootStrapProperties(),
                         getGlassFishProperties());
             }
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Time taken by the phases of starting a server and preparing it for tests: artifact resolution,
+ * class loader creation, JVM spawn, the startup phases of GlassFish itself, every admin command and
+ * every deployment. For a forked GlassFish, also the memory of the forked JVM once it is ready.
+ * <p>
+ * The phases are written to {@code glassfish-timings.json} and {@code glassfish-timings.txt}
+ * whenever phases were added, so the report is complete at any point of the build.
+ */
+final class StartupTimings {
+
+    static final String JSON_REPORT = "glassfish-timings.json";
+    static final String TEXT_REPORT = "glassfish-timings.txt";
+
+    static final String MAVEN = "maven";
+    static final String GLASSFISH = "glassfish";
+    static final String ADMIN = "admin";
+    static final String DEPLOY = "deploy";
+
+    private final String serverId;
+    private final long origin = System.currentTimeMillis();
+    private final List<Phase> phases = new ArrayList<>();
+    private final Map<String, Long> memory = new LinkedHashMap<>();
+
+    StartupTimings(String serverId) {
+        this.serverId = serverId;
+    }
+
+    /**
+     * @param startTime {@link System#currentTimeMillis()} when the phase started
+     */
+    synchronized void record(String category, String name, long startTime, long millis) {
+        phases.add(new Phase(category, name, startTime - origin, millis));
+    }
+
+    /**
+     * Records a phase which started at {@code startTime} and ends now.
+     */
+    void recordSince(String category, String name, long startTime) {
+        record(category, name, startTime, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Records a memory figure of the server, e.g. {@code rss}.
+     */
+    synchronized void recordMemory(String name, long bytes) {
+        memory.put(name, bytes);
+    }
+
+    synchronized void write(File directory) throws IOException {
+        Files.createDirectories(directory.toPath());
+        long total = 0;
+        for (Phase phase : phases) {
+            total = Math.max(total, phase.start + phase.millis);
+        }
+
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"serverID\": \"").append(escapeJson(serverId)).append("\",\n");
+        json.append("  \"totalMillis\": ").append(total).append(",\n");
+        json.append("  \"phases\": [");
+        for (int i = 0; i < phases.size(); i++) {
+            Phase phase = phases.get(i);
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("    {\"category\": \"").append(phase.category)
+                    .append("\", \"name\": \"").append(escapeJson(phase.name))
+                    .append("\", \"startMillis\": ").append(phase.start)
+                    .append(", \"millis\": ").append(phase.millis).append('}');
+        }
+        json.append("\n  ],\n");
+        json.append("  \"memory\": {");
+        int index = 0;
+        for (Map.Entry<String, Long> entry : memory.entrySet()) {
+            json.append(index++ == 0 ? "\n" : ",\n");
+            json.append("    \"").append(escapeJson(entry.getKey())).append("Bytes\": ").append(entry.getValue());
+        }
+        json.append(memory.isEmpty() ? "}\n" : "\n  }\n");
+        json.append("}\n");
+        Files.write(new File(directory, JSON_REPORT).toPath(), json.toString().getBytes(StandardCharsets.UTF_8));
+
+        StringBuilder table = new StringBuilder();
+        table.append("GlassFish timings of server ").append(serverId).append(", ")
+                .append(total).append(" ms in total\n\n");
+        table.append(String.format("%-10s %-60s %10s %10s%n", "Category", "Phase", "Start", "Time"));
+        for (Phase phase : phases) {
+            table.append(String.format("%-10s %-60s %7d ms %7d ms%n",
+                    phase.category, abbreviate(phase.name, 60), phase.start, phase.millis));
+        }
+        if (!memory.isEmpty()) {
+            table.append(String.format("%n%-10s %-60s %10s%n", "Memory", "", "Size"));
+            for (Map.Entry<String, Long> entry : memory.entrySet()) {
+                table.append(String.format("%-10s %-60s %7d MB%n", "", entry.getKey(), entry.getValue() / (1024 * 1024)));
+            }
+        }
+        Files.write(new File(directory, TEXT_REPORT).toPath(), table.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String abbreviate(String value, int length) {
+        return value.length() <= length ? value : value.substring(0, length - 3) + "...";
+    }
+
+    static String escapeJson(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static final class Phase {
+
+        private final String category;
+        private final String name;
+        private final long start;
+        private final long millis;
+
+        private Phase(String category, String name, long start, long millis) {
+            this.category = category;
+            this.name = name;
+            this.start = start;
+            this.millis = millis;
+        }
+    }
+}
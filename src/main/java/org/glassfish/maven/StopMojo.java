@@ -33,7 +33,7 @@ public class StopMojo extends AbstractServerMojo {
         try {
             if (isForkedMode()) {
                 stopForkedGlassFish();
-            } else {
+            } else if (!mayStopRegisteredDaemon() || !stopRegisteredDaemon()) {
                 stopGlassFish(serverID, getClassLoader());
                 cleanupClassLoader(serverID);
             }
@@ -42,4 +42,12 @@ public class StopMojo extends AbstractServerMojo {
         }
     }
 
+    /**
+     * A daemon registered for this server ID is only stopped in daemon mode, or when no GlassFish runs
+     * in-process, so that stopping an in-process server leaves an unrelated daemon alone.
+     */
+    private boolean mayStopRegisteredDaemon() {
+        return daemon || ServerRegistry.get(serverID).getClassLoader() == null;
+    }
+
 }
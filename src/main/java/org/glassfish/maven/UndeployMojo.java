@@ -35,8 +35,14 @@ public class UndeployMojo extends AbstractDeployMojo {
 
     public void execute() throws MojoExecutionException, MojoFailureException {
         try {
-            doUndeploy(serverID, getClassLoader(), getBootStrapProperties(),
-                    getGlassFishProperties(), name, getUndeploymentParameters());
+            if (isForkedMode()) {
+                String[] params = getUndeploymentParameters();
+                String paramStr = params.length > 0 ? " " + String.join(" ", params) : "";
+                sendForkedCommand(GlassFishForkedRunner.CMD_UNDEPLOY + " " + name + paramStr);
+            } else {
+                doUndeploy(serverID, getClassLoader(), getBootStrapProperties(),
+                        getGlassFishProperties(), name, getUndeploymentParameters());
+            }
         } catch (Exception e) {
             throw new MojoExecutionException(e.getMessage(), e);
         }
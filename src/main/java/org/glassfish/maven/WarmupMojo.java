@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This Mojo waits until the deployed applications answer HTTP requests, and then optionally
+ * warms up the server by sending requests to the configured URLs, so that the JIT compiler has
+ * compiled the hot paths before the tests measure or time out on them.
+ * <p/>
+ * Every readiness URL is polled with a growing interval until it answers with a 2xx status, following
+ * redirects, or the deadline passed. The time until the first successful response is reported for each URL,
+ * the warm-up requests are reported with their latency percentiles.
+ */
+@Mojo(name = "warmup", defaultPhase = LifecyclePhase.PRE_INTEGRATION_TEST)
+public class WarmupMojo extends AbstractServerMojo {
+
+    private static final long MIN_BACKOFF_MILLIS = 10;
+    private static final long MAX_BACKOFF_MILLIS = 1000;
+    private static final long MAX_REQUEST_MILLIS = 10000;
+
+    /**
+     * URLs which must answer with a 2xx status before the goal finishes. Relative URLs are resolved
+     * against {@code http://localhost:<http-listener port>/}.
+     * <p/>
+     * By default, the context root of every application of the deploy executions, or the final name
+     * of the project if there are none.
+     */
+    @Parameter
+    protected List<String> readinessUrls;
+
+    /**
+     * Maximum time in seconds to wait until all readiness URLs answered successfully.
+     * Can also be set via the Maven property {@code glassfish.warmup.readinessTimeout}.
+     */
+    @Parameter(property = "glassfish.warmup.readinessTimeout", defaultValue = "120")
+    protected long readinessTimeout;
+
+    /**
+     * URLs requested to warm up the server once it is ready, relative URLs are resolved like the readiness URLs.
+     */
+    @Parameter
+    protected List<String> warmupUrls;
+
+    /**
+     * Number of warm-up requests sent to each warm-up URL, 0 disables the warm-up.
+     * Can also be set via the Maven property {@code glassfish.warmup.requests}.
+     */
+    @Parameter(property = "glassfish.warmup.requests", defaultValue = "0")
+    protected int warmupRequests;
+
+    /**
+     * Number of warm-up requests in flight at the same time.
+     * Can also be set via the Maven property {@code glassfish.warmup.concurrency}.
+     */
+    @Parameter(property = "glassfish.warmup.concurrency", defaultValue = "4")
+    protected int warmupConcurrency;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        try {
+            URI baseUri = getHttpBaseUri();
+            // keeps the connections alive between requests
+            HttpClient client = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofMillis(MAX_REQUEST_MILLIS))
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .build();
+
+            long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(readinessTimeout);
+            for (String url : getReadinessUrls()) {
+                awaitReady(client, baseUri.resolve(url), deadline);
+            }
+            if (warmupRequests > 0 && warmupUrls != null && !warmupUrls.isEmpty()) {
+                warmUp(client, baseUri);
+            }
+        } catch (MojoExecutionException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+    }
+
+    private List<String> getReadinessUrls() {
+        if (readinessUrls != null) {
+            return readinessUrls;
+        }
+        List<String> urls = new ArrayList<>();
+        for (Properties deployment : getGoalConfigurations("deploy", "deploymentParams")) {
+            String contextRoot = deployment.getProperty("contextRoot", deployment.getProperty("name"));
+            if (contextRoot != null) {
+                urls.add(contextRoot.replaceFirst("^/", "") + "/");
+            }
+        }
+        if (urls.isEmpty()) {
+            urls.add(project.getBuild().getFinalName() + "/");
+        }
+        return urls;
+    }
+
+    private static void awaitReady(HttpClient client, URI uri, long deadline) throws Exception {
+        long startTime = System.currentTimeMillis();
+        long backoff = MIN_BACKOFF_MILLIS;
+        int attempts = 0;
+        String lastFailure = "no response";
+        while (true) {
+            attempts++;
+            long remaining = deadline - System.currentTimeMillis();
+            try {
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .timeout(Duration.ofMillis(Math.max(1, Math.min(remaining, MAX_REQUEST_MILLIS))))
+                        .GET().build();
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status >= 200 && status < 300) {
+                    System.out.println("Time to first 200 of " + uri + ": " + (System.currentTimeMillis() - startTime)
+                            + " ms, " + attempts + " attempts");
+                    return;
+                }
+                lastFailure = "status " + status;
+            } catch (IOException e) {
+                lastFailure = e.toString();
+            }
+            remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new MojoExecutionException(uri + " not ready after " + (System.currentTimeMillis() - startTime)
+                        + " ms and " + attempts + " attempts, last failure: " + lastFailure);
+            }
+            Thread.sleep(Math.min(backoff, remaining));
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+        }
+    }
+
+    private void warmUp(HttpClient client, URI baseUri) throws Exception {
+        int concurrency = Math.max(1, warmupConcurrency);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            for (String url : warmupUrls) {
+                URI uri = baseUri.resolve(url);
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .timeout(Duration.ofMillis(MAX_REQUEST_MILLIS)).GET().build();
+                AtomicInteger remaining = new AtomicInteger(warmupRequests);
+                List<Future<Worker>> futures = new ArrayList<>(concurrency);
+                long startTime = System.nanoTime();
+                for (int i = 0; i < concurrency; i++) {
+                    futures.add(executor.submit(new Worker(client, request, remaining)));
+                }
+                LatencyHistogram latencies = new LatencyHistogram();
+                long failures = 0;
+                for (Future<Worker> future : futures) {
+                    Worker worker = future.get();
+                    latencies.merge(worker.latencies);
+                    failures += worker.failures;
+                }
+                long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+                System.out.println(String.format("Warmed up %s with %d requests in %d ms, %d failed,"
+                                + " latency p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, max %.2f ms",
+                        uri, warmupRequests, millis, failures,
+                        toMillis(latencies.getValueAtPercentile(50)), toMillis(latencies.getValueAtPercentile(90)),
+                        toMillis(latencies.getValueAtPercentile(99)), toMillis(latencies.getMax())));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Sends warm-up requests until all were taken and records their latencies into its own histogram.
+     */
+    private static final class Worker implements Callable<Worker> {
+
+        private final HttpClient client;
+        private final HttpRequest request;
+        private final AtomicInteger remaining;
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private long failures;
+
+        private Worker(HttpClient client, HttpRequest request, AtomicInteger remaining) {
+            this.client = client;
+            this.request = request;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public Worker call() throws Exception {
+            while (remaining.getAndDecrement() > 0) {
+                long startTime = System.nanoTime();
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 400) {
+                        failures++;
+                    }
+                } catch (IOException e) {
+                    failures++;
+                }
+                latencies.record(System.nanoTime() - startTime);
+            }
+            return this;
+        }
+    }
+}
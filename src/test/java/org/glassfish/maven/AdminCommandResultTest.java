@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdminCommandResultTest {
+
+    @Test
+    void encodedResultHasNoSpacesOrLineBreaks() {
+        String encoded = new AdminCommandResult("set a.b=c d", AdminCommandResult.SUCCESS, 12,
+                "Command set executed.\nline 2\r\n").encode();
+
+        assertFalse(encoded.contains(" "), encoded);
+        assertFalse(encoded.contains("\n"), encoded);
+        assertFalse(encoded.contains("\r"), encoded);
+        assertTrue(encoded.startsWith("SUCCESS,12,"), encoded);
+    }
+
+    @Test
+    void decodeRestoresEncodedResult() {
+        AdminCommandResult result = AdminCommandResult.decode(new AdminCommandResult(
+                "create-jdbc-resource --poolName=a,b jdbc/%x", AdminCommandResult.FAILURE, 1234,
+                "Failed: 50% done, \"quoted\", \u00fcmlaut\nnext line").encode());
+
+        assertEquals("create-jdbc-resource --poolName=a,b jdbc/%x", result.getCommand());
+        assertEquals(AdminCommandResult.FAILURE, result.getExitStatus());
+        assertEquals(1234, result.getMillis());
+        assertEquals("Failed: 50% done, \"quoted\", \u00fcmlaut\nnext line", result.getOutput());
+        assertTrue(result.isFailure());
+    }
+
+    @Test
+    void missingOutputIsEmpty() {
+        AdminCommandResult result = AdminCommandResult.decode(
+                new AdminCommandResult("version", AdminCommandResult.SKIPPED, 0, null).encode());
+
+        assertEquals("version", result.getCommand());
+        assertEquals("", result.getOutput());
+        assertFalse(result.isFailure());
+    }
+
+    @Test
+    void decodeAllSkipsEmptyResults() {
+        String[] encoded = {
+                new AdminCommandResult("first", AdminCommandResult.SUCCESS, 1, "ok").encode(),
+                "",
+                new AdminCommandResult("second", AdminCommandResult.WARNING, 2, "careful").encode()
+        };
+
+        List<AdminCommandResult> results = AdminCommandResult.decodeAll(encoded);
+
+        assertEquals(2, results.size());
+        assertEquals("first", results.get(0).getCommand());
+        assertEquals(AdminCommandResult.WARNING, results.get(1).getExitStatus());
+        assertEquals("careful", results.get(1).getOutput());
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DomainSnapshotTest {
+
+    private static final List<String> COMMANDS = List.of("create-jdbc-connection-pool pool",
+            "create-jdbc-resource --connectionpoolid pool jdbc/ds", "set-log-levels x=FINE");
+
+    @TempDir
+    File directory;
+
+    @Test
+    void withoutSnapshotAllCommandsRun() {
+        DomainSnapshot snapshot = prepare();
+
+        assertFalse(snapshot.isRestored());
+        assertEquals(COMMANDS, snapshot.filterCommands(COMMANDS));
+    }
+
+    @Test
+    void restoredSnapshotSkipsCoveredCommands() {
+        assertTrue(new File(directory, "snapshots/key").mkdirs());
+        DomainSnapshot snapshot = prepare();
+
+        assertTrue(snapshot.isRestored());
+        assertEquals(List.of(), snapshot.filterCommands(COMMANDS));
+        assertEquals(List.of("list-applications"), snapshot.filterCommands(List.of(COMMANDS.get(2),
+                "list-applications")));
+    }
+
+    @Test
+    void restoredSnapshotSkipsEachCoveredCommandOnce() {
+        assertTrue(new File(directory, "snapshots/key").mkdirs());
+        DomainSnapshot snapshot = prepare();
+
+        assertEquals(List.of(COMMANDS.get(0)), snapshot.filterCommands(List.of(COMMANDS.get(0), COMMANDS.get(0))));
+    }
+
+    @Test
+    void snapshotIsDueOnceAllCommandsSucceeded() {
+        DomainSnapshot snapshot = prepare();
+
+        assertFalse(snapshot.commandsSucceeded(COMMANDS.subList(0, 2)));
+        assertTrue(snapshot.commandsSucceeded(COMMANDS.subList(2, 3)));
+        // taken only once
+        assertFalse(snapshot.commandsSucceeded(COMMANDS));
+    }
+
+    @Test
+    void restoredSnapshotIsNotTakenAgain() {
+        assertTrue(new File(directory, "snapshots/key").mkdirs());
+
+        assertFalse(prepare().commandsSucceeded(COMMANDS));
+    }
+
+    @Test
+    void storedSnapshotLeavesOutRuntimeState() throws Exception {
+        Path instanceRoot = directory.toPath().resolve("instance");
+        Files.createDirectories(instanceRoot.resolve("config"));
+        Files.createDirectories(instanceRoot.resolve("logs"));
+        Files.writeString(instanceRoot.resolve("config/domain.xml"), "<domain/>");
+        Files.writeString(instanceRoot.resolve("logs/server.log"), "started");
+        Path snapshotDirectory = directory.toPath().resolve("snapshots/key");
+        Files.createDirectories(snapshotDirectory.getParent());
+
+        DomainSnapshot.store(instanceRoot, snapshotDirectory);
+
+        assertEquals("<domain/>", Files.readString(snapshotDirectory.resolve("config/domain.xml")));
+        assertFalse(Files.exists(snapshotDirectory.resolve("logs")));
+        try (Stream<Path> siblings = Files.list(snapshotDirectory.getParent())) {
+            assertEquals(1, siblings.count());
+        }
+    }
+
+    @Test
+    void materializeReplacesInstanceRoot() throws Exception {
+        Path snapshotDirectory = directory.toPath().resolve("snapshots/key/config");
+        Files.createDirectories(snapshotDirectory);
+        Files.writeString(snapshotDirectory.resolve("domain.xml"), "<domain/>");
+        File instanceRoot = new File(directory, "instance");
+        assertTrue(new File(instanceRoot, "config").mkdirs());
+        Files.writeString(new File(instanceRoot, "config/stale.xml").toPath(), "stale");
+
+        prepare().materialize();
+
+        assertEquals("<domain/>", Files.readString(new File(instanceRoot, "config/domain.xml").toPath()));
+        assertFalse(new File(instanceRoot, "config/stale.xml").exists());
+    }
+
+    private DomainSnapshot prepare() {
+        return DomainSnapshot.prepare(new File(directory, "snapshots"), "key", COMMANDS,
+                new File(directory, "instance"));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExplodedWarTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void assemblesWebappClassesAndLibraries() throws Exception {
+        Path webapp = write(tempDir.resolve("webapp/index.html"), "index");
+        write(tempDir.resolve("webapp/WEB-INF/web.xml"), "<web-app/>");
+        Path classes = tempDir.resolve("classes");
+        write(classes.resolve("org/example/App.class"), "class");
+        Path library = write(tempDir.resolve("repo/lib-1.0.jar"), "jar");
+
+        File directory = newExplodedWar(webapp.getParent(), classes, library).assemble();
+
+        Path exploded = directory.toPath();
+        assertEquals("index", read(exploded.resolve("index.html")));
+        assertEquals("<web-app/>", read(exploded.resolve("WEB-INF/web.xml")));
+        assertEquals("class", read(exploded.resolve("WEB-INF/classes/org/example/App.class")));
+        assertEquals("jar", read(exploded.resolve("WEB-INF/lib/lib-1.0.jar")));
+    }
+
+    @Test
+    void removesStaleFilesAndDirectories() throws Exception {
+        Path webapp = tempDir.resolve("webapp");
+        write(webapp.resolve("index.html"), "index");
+        Path removed = write(webapp.resolve("css/deep/site.css"), "css");
+        Path classes = Files.createDirectories(tempDir.resolve("classes"));
+        Path oldLibrary = write(tempDir.resolve("repo/lib-1.0.jar"), "old");
+        Path newLibrary = write(tempDir.resolve("repo/lib-1.1.jar"), "new");
+        Path exploded = newExplodedWar(webapp, classes, oldLibrary).assemble().toPath();
+        assertTrue(Files.exists(exploded.resolve("css/deep/site.css")));
+
+        Files.delete(removed);
+        newExplodedWar(webapp, classes, newLibrary).assemble();
+
+        assertTrue(Files.exists(exploded.resolve("index.html")));
+        assertFalse(Files.exists(exploded.resolve("css")), "stale directories are removed");
+        assertFalse(Files.exists(exploded.resolve("WEB-INF/lib/lib-1.0.jar")));
+        assertEquals("new", read(exploded.resolve("WEB-INF/lib/lib-1.1.jar")));
+    }
+
+    @Test
+    void keepsClassesOfTheBuildOutput() throws Exception {
+        Path webapp = Files.createDirectories(tempDir.resolve("webapp"));
+        Path classes = tempDir.resolve("classes");
+        write(classes.resolve("org/example/App.class"), "class");
+        Path exploded = newExplodedWar(webapp, classes, null).assemble().toPath();
+
+        write(classes.resolve("org/example/Added.class"), "added");
+        newExplodedWar(webapp, classes, null).assemble();
+
+        assertEquals("class", read(exploded.resolve("WEB-INF/classes/org/example/App.class")));
+        assertEquals("added", read(exploded.resolve("WEB-INF/classes/org/example/Added.class")));
+        assertTrue(Files.exists(classes.resolve("org/example/App.class")), "the build output is left alone");
+    }
+
+    private ExplodedWar newExplodedWar(Path webapp, Path classes, Path library) throws Exception {
+        return new ExplodedWar(tempDir.resolve("exploded").toFile())
+                .addWebappDirectory(webapp.toFile())
+                .setClassesDirectory(classes.toFile())
+                .addLibraries(library == null ? Collections.emptyList() : Collections.singletonList(library.toFile()));
+    }
+
+    private static Path write(Path file, String content) throws Exception {
+        Files.createDirectories(file.getParent());
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(Path file) throws Exception {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
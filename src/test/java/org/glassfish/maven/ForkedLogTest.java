@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.util.logging.Level;
+
+import org.junit.jupiter.api.Test;
+
+import static org.glassfish.maven.ForkedLog.parseLevel;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ForkedLogTest {
+
+    @Test
+    void parsesLevelOfSimpleFormatter() {
+        assertEquals(Level.WARNING, parseLevel("WARNING: Context path from ServletContext:  differs"));
+        assertEquals(Level.FINE, parseLevel("FINE: Loading application"));
+    }
+
+    @Test
+    void parsesLevelOfUniformFormatter() {
+        assertEquals(Level.INFO, parseLevel("[#|2026-01-01T10:00:00.000+0000|INFO|glassfish|javax.enterprise|"
+                + "_ThreadID=1;|Started|#]"));
+    }
+
+    @Test
+    void parsesLevelOfOdlFormatter() {
+        assertEquals(Level.SEVERE, parseLevel("[2026-01-01T10:00:00.000+0000] [GlassFish 7.0] [SEVERE] [] "
+                + "[jakarta.enterprise.web] [tid: _ThreadID=1] [[Failed]]"));
+    }
+
+    @Test
+    void distinguishesFinerLevels() {
+        assertEquals(Level.FINER, parseLevel("FINER: entering"));
+        assertEquals(Level.FINEST, parseLevel("FINEST: details"));
+        assertEquals(Level.CONFIG, parseLevel("CONFIG: property"));
+    }
+
+    @Test
+    void continuationLineHasNoLevel() {
+        assertNull(parseLevel("\tat org.glassfish.Main.main(Main.java:42)"));
+        assertNull(parseLevel("Jan 01, 2026 10:00:00 AM org.glassfish.Main main"));
+        assertNull(parseLevel("INFORMATION about WARNINGS"));
+    }
+
+    @Test
+    void ignoresLevelFarIntoLine() {
+        assertNull(parseLevel("x".repeat(100) + " SEVERE: not a header"));
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ForkedServerTest {
+
+    @Test
+    void parseResponseWithoutMessage() {
+        ForkedServer.Response response = ForkedServer.Response.parse(
+                GlassFishForkedRunner.FRAME_PREFIX + " 7 " + GlassFishForkedRunner.RESP_OK_DEPLOY);
+
+        assertEquals(7, response.getId());
+        assertEquals(GlassFishForkedRunner.RESP_OK_DEPLOY, response.getStatus());
+        assertNull(response.getMessage());
+        assertFalse(response.isError());
+        assertEquals(GlassFishForkedRunner.RESP_OK_DEPLOY, response.toString());
+    }
+
+    @Test
+    void parseResponseWithEscapedMessage() {
+        String message = "Application failed:\n  at line 3 with a \\ and  two spaces";
+        ForkedServer.Response response = ForkedServer.Response.parse(GlassFishForkedRunner.FRAME_PREFIX + " "
+                + Long.MAX_VALUE + " " + GlassFishForkedRunner.RESP_ERROR_DEPLOY + " "
+                + GlassFishForkedRunner.escape(message));
+
+        assertEquals(Long.MAX_VALUE, response.getId());
+        assertEquals(GlassFishForkedRunner.RESP_ERROR_DEPLOY, response.getStatus());
+        assertEquals(message, response.getMessage());
+        assertTrue(response.isError());
+    }
+
+    @Test
+    void parseResponseWithEmptyMessage() {
+        ForkedServer.Response response = ForkedServer.Response.parse(
+                GlassFishForkedRunner.FRAME_PREFIX + " 1 " + GlassFishForkedRunner.RESP_OK_ADMIN + " ");
+
+        assertEquals("", response.getMessage());
+    }
+
+    @Test
+    void abbreviateLongCommands() {
+        String shortCommand = "DEPLOY /tmp/app.war";
+        StringBuilder longCommand = new StringBuilder("ADMIN_BATCH CONTINUE");
+        while (longCommand.length() <= 100) {
+            longCommand.append(" set+a.b.c%3Dd");
+        }
+
+        assertEquals(shortCommand, ForkedServer.abbreviate(shortCommand));
+        assertEquals(100, ForkedServer.abbreviate(longCommand.toString()).length());
+        assertTrue(ForkedServer.abbreviate(longCommand.toString()).endsWith("..."));
+    }
+}
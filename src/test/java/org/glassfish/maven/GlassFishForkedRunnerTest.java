@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import org.junit.jupiter.api.Test;
+
+import static org.glassfish.maven.GlassFishForkedRunner.decodeArgument;
+import static org.glassfish.maven.GlassFishForkedRunner.encodeArgument;
+import static org.glassfish.maven.GlassFishForkedRunner.escape;
+import static org.glassfish.maven.GlassFishForkedRunner.unescape;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class GlassFishForkedRunnerTest {
+
+    @Test
+    void escapeKeepsMessageOnOneLine() {
+        assertEquals("first\\nsecond\\r\\nthird", escape("first\nsecond\r\nthird"));
+    }
+
+    @Test
+    void escapeDoublesBackslashes() {
+        assertEquals("C:\\\\temp\\\\new", escape("C:\\temp\\new"));
+    }
+
+    @Test
+    void unescapeRestoresEscapedMessage() {
+        for (String message : new String[] {"", "plain", "a\nb", "\r\n", "C:\\temp\\new", "literal \\n",
+                "trailing\\", "\\\\n\n", "mixed \\r\r\\n\n end"}) {
+            assertEquals(message, unescape(escape(message)));
+        }
+    }
+
+    @Test
+    void unescapeKeepsUnknownEscapesAndTrailingBackslash() {
+        assertEquals("a\tb", unescape("a\\\tb"));
+        assertEquals("ax", unescape("a\\x"));
+        assertEquals("end\\", unescape("end\\"));
+    }
+
+    @Test
+    void encodedArgumentsRoundTrip() {
+        String value = "/tmp/my app+c%20d=e&f\\h\n";
+
+        String encoded = encodeArgument(value);
+
+        assertFalse(encoded.contains(" "), encoded);
+        assertEquals(value, decodeArgument(encoded));
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getTotalCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+    }
+
+    @Test
+    void valuesBelowSubBucketsAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 0; value < 128; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(128, histogram.getTotalCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(127, histogram.getMax());
+        assertEquals(63.5, histogram.getMean());
+        assertEquals(0, histogram.getValueAtPercentile(0));
+        assertEquals(63, histogram.getValueAtPercentile(50));
+        assertEquals(126, histogram.getValueAtPercentile(99));
+        assertEquals(127, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void negativeValuesAreRecordedAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void valuesAboveSubBucketsShareBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(127);
+        histogram.record(128);
+        histogram.record(129);
+        histogram.record(1000);
+
+        assertEquals(127, histogram.getValueAtPercentile(25));
+        // 128 and 129 fall into the same bucket, reported as its highest value
+        assertEquals(129, histogram.getValueAtPercentile(50));
+        assertEquals(129, histogram.getValueAtPercentile(75));
+        assertEquals(1000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void percentileIsCappedAtMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(128);
+
+        assertEquals(128, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void relativeErrorIsBelowOneSixtyFourth() {
+        for (long value = 128; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 + 1) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(value);
+            histogram.record(Long.MAX_VALUE);
+
+            long reported = histogram.getValueAtPercentile(50);
+            assertTrue(reported >= value, value + " reported as " + reported);
+            assertTrue(reported - value <= value / 64, value + " reported as " + reported);
+        }
+    }
+
+    @Test
+    void recordsLongMaxValue() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(Long.MAX_VALUE - 1);
+
+        assertEquals(2, histogram.getTotalCount());
+        assertEquals(Long.MAX_VALUE - 1, histogram.getMin());
+        assertEquals(Long.MAX_VALUE, histogram.getMax());
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(50));
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void mergeCombinesCountsAndExtremes() {
+        LatencyHistogram first = new LatencyHistogram();
+        first.record(10);
+        first.record(20);
+        LatencyHistogram second = new LatencyHistogram();
+        second.record(5);
+        second.record(1_000_000);
+        LatencyHistogram empty = new LatencyHistogram();
+
+        first.merge(second);
+        first.merge(empty);
+
+        assertEquals(4, first.getTotalCount());
+        assertEquals(5, first.getMin());
+        assertEquals(1_000_000, first.getMax());
+        assertEquals(250_008.75, first.getMean());
+        assertEquals(10, first.getValueAtPercentile(50));
+        assertEquals(20, first.getValueAtPercentile(75));
+        assertEquals(1_000_000, first.getValueAtPercentile(100));
+    }
+
+    @Test
+    void mergeIntoEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(42);
+        LatencyHistogram merged = new LatencyHistogram();
+
+        merged.merge(histogram);
+
+        assertEquals(1, merged.getTotalCount());
+        assertEquals(42, merged.getMin());
+        assertEquals(42, merged.getMax());
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.io.File;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PortAllocatorTest {
+
+    @TempDir
+    File reservationDirectory;
+
+    @Test
+    void reservedPortIsFree() throws Exception {
+        try (PortAllocator.Reservation reservation = new PortAllocator(reservationDirectory).reserve()) {
+            assertTrue(reservation.getPort() > 0);
+            assertTrue(PortAllocator.isFree(reservation.getPort()));
+            assertTrue(new File(reservationDirectory, reservation.getPort() + ".lock").isFile());
+        }
+    }
+
+    @Test
+    void reservedPortsAreDistinct() throws Exception {
+        // allocators of different servers sharing the reservation directory
+        PortAllocator first = new PortAllocator(reservationDirectory);
+        PortAllocator second = new PortAllocator(reservationDirectory);
+        List<PortAllocator.Reservation> reservations = new ArrayList<>();
+        try {
+            Set<Integer> ports = new HashSet<>();
+            for (int i = 0; i < 20; i++) {
+                reservations.add((i % 2 == 0 ? first : second).reserve());
+                ports.add(reservations.get(i).getPort());
+            }
+            assertEquals(reservations.size(), ports.size());
+        } finally {
+            for (PortAllocator.Reservation reservation : reservations) {
+                reservation.close();
+            }
+        }
+    }
+
+    @Test
+    void closedReservationDeletesItsFile() throws Exception {
+        PortAllocator.Reservation reservation = new PortAllocator(reservationDirectory).reserve();
+        File lockFile = new File(reservationDirectory, reservation.getPort() + ".lock");
+        reservation.close();
+        assertFalse(lockFile.exists());
+    }
+
+    @Test
+    void boundPortIsNotFree() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            assertFalse(PortAllocator.isFree(socket.getLocalPort()));
+        }
+    }
+
+    @Test
+    void createsReservationDirectory() throws Exception {
+        File directory = new File(reservationDirectory, "ports/nested");
+        try (PortAllocator.Reservation reservation = new PortAllocator(directory).reserve()) {
+            assertTrue(new File(directory, reservation.getPort() + ".lock").isFile());
+        }
+    }
+}
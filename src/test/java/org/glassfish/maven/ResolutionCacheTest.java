@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResolutionCacheTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    void glassFishVersionIsPersisted() {
+        ResolutionCache.load(directory).putGlassFishVersion("7.1", "7.1.0");
+
+        ResolutionCache cache = ResolutionCache.load(directory);
+
+        assertEquals("7.1.0", cache.getGlassFishVersion("7.1"));
+        assertNull(cache.getGlassFishVersion("7.0"));
+    }
+
+    @Test
+    void snapshotVersionsAreNotCached() throws Exception {
+        File jar = writeJar("glassfish-embedded-all-8.0.0-SNAPSHOT.jar", "snapshot");
+        ResolutionCache cache = ResolutionCache.load(directory);
+
+        cache.putGlassFishVersion("7.1-SNAPSHOT", "7.1.0");
+        cache.putJar("8.0.0-SNAPSHOT", jar);
+
+        assertNull(cache.getGlassFishVersion("7.1-SNAPSHOT"));
+        assertNull(ResolutionCache.load(directory).getJar("8.0.0-SNAPSHOT"));
+        assertFalse(new File(directory, ResolutionCache.FILE_NAME).exists());
+    }
+
+    @Test
+    void unchangedJarIsReturned() throws Exception {
+        File jar = writeJar("glassfish-embedded-all-7.1.0.jar", "content");
+        ResolutionCache.load(directory).putJar("7.1.0", jar);
+
+        assertEquals(jar.getAbsoluteFile(), ResolutionCache.load(directory).getJar("7.1.0"));
+    }
+
+    @Test
+    void changedJarIsNotReturned() throws Exception {
+        File jar = writeJar("glassfish-embedded-all-7.1.0.jar", "content");
+        ResolutionCache.load(directory).putJar("7.1.0", jar);
+
+        Files.write(jar.toPath(), "changed content".getBytes(StandardCharsets.UTF_8));
+
+        assertNull(ResolutionCache.load(directory).getJar("7.1.0"));
+    }
+
+    @Test
+    void touchedJarIsNotReturned() throws Exception {
+        File jar = writeJar("glassfish-embedded-all-7.1.0.jar", "content");
+        ResolutionCache.load(directory).putJar("7.1.0", jar);
+
+        jar.setLastModified(jar.lastModified() - 60_000);
+
+        assertNull(ResolutionCache.load(directory).getJar("7.1.0"));
+    }
+
+    @Test
+    void missingJarIsNotCached() {
+        ResolutionCache cache = ResolutionCache.load(directory);
+
+        cache.putJar("7.1.0", new File(directory, "missing.jar"));
+        cache.putJar("7.1.0", null);
+
+        assertNull(ResolutionCache.load(directory).getJar("7.1.0"));
+    }
+
+    @Test
+    void unreadableCacheIsEmpty() throws Exception {
+        Files.write(new File(directory, ResolutionCache.FILE_NAME).toPath(),
+                "plugin.7.1.glassfishVersion=\\u00zz".getBytes(StandardCharsets.ISO_8859_1));
+
+        assertNull(ResolutionCache.load(directory).getGlassFishVersion("7.1"));
+    }
+
+    private File writeJar(String name, String content) throws Exception {
+        File jar = new File(directory, name);
+        Files.write(jar.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return jar;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.maven;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ServerRegistryTest {
+
+    private static final String SERVER_ID = "server-registry-test";
+
+    @AfterEach
+    void removeServer() {
+        ServerRegistry.remove(SERVER_ID);
+    }
+
+    @Test
+    void replaysAdminCommandsInOrder() {
+        ServerRegistry.Server server = ServerRegistry.get(SERVER_ID);
+        server.addReplayedCommand("ADMIN set-log-levels%20x=FINE");
+        server.addReplayedCommand("ADMIN_BATCH FAIL_FAST a b");
+        server.addReplayedCommand("ADMIN set-log-levels%20x=FINE");
+
+        assertEquals(List.of("ADMIN set-log-levels%20x=FINE", "ADMIN_BATCH FAIL_FAST a b",
+                "ADMIN set-log-levels%20x=FINE"), server.getReplayedCommands());
+    }
+
+    @Test
+    void redeploymentReplacesDeploymentOfSameName() {
+        ServerRegistry.Server server = ServerRegistry.get(SERVER_ID);
+        server.addReplayedCommand("DEPLOY /work/app.war --contextroot=/a");
+        server.addReplayedCommand("ADMIN create-jdbc-resource");
+        server.addReplayedCommand("DEPLOY /other/app.war --contextroot=/b");
+
+        assertEquals(List.of("ADMIN create-jdbc-resource", "DEPLOY /other/app.war --contextroot=/b"),
+                server.getReplayedCommands());
+    }
+
+    @Test
+    void deploymentNameParameterTakesPrecedenceOverArchive() {
+        ServerRegistry.Server server = ServerRegistry.get(SERVER_ID);
+        server.addReplayedCommand("DEPLOY /work/app.war --name=first");
+        server.addReplayedCommand("DEPLOY /work/app.war --name=second");
+        server.addReplayedCommand("DEPLOY /work/first.war");
+
+        assertEquals(List.of("DEPLOY /work/app.war --name=second", "DEPLOY /work/first.war"),
+                server.getReplayedCommands());
+    }
+
+    @Test
+    void undeploymentForgetsDeployment() {
+        ServerRegistry.Server server = ServerRegistry.get(SERVER_ID);
+        server.addReplayedCommand("DEPLOY /work/app.war");
+        server.addReplayedCommand("DEPLOY /work/other.ear --name=other");
+        server.addReplayedCommand("UNDEPLOY app");
+        server.addReplayedCommand("UNDEPLOY unknown");
+
+        assertEquals(List.of("DEPLOY /work/other.ear --name=other"), server.getReplayedCommands());
+    }
+}